@@ -0,0 +1,39 @@
+package br.com.starwarsms.cache;
+
+import br.com.starwarsms.domain.Planet;
+
+import java.util.Optional;
+
+final class NoOpPlanetCache implements PlanetCache {
+
+    static final NoOpPlanetCache INSTANCE = new NoOpPlanetCache();
+
+    private NoOpPlanetCache() {
+    }
+
+    @Override
+    public Optional<Planet> getById(Long id) {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Planet> getByName(String name) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void put(Planet planet) {
+    }
+
+    @Override
+    public void evict(Long id) {
+    }
+
+    @Override
+    public void evict(Long id, long minVersion) {
+    }
+
+    @Override
+    public void evictName(String name) {
+    }
+}
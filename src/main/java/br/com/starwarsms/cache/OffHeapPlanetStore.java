@@ -0,0 +1,394 @@
+package br.com.starwarsms.cache;
+
+import br.com.starwarsms.domain.Planet;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+// Fixed-size slots outside the heap, grouped into sets of `ways` slots. A planet can only live in the set its id
+// hashes to, so a lookup reads at most `ways` slots and eviction replaces the least recently used slot of that set.
+// A second, smaller table maps name hashes to ids the same way.
+//
+// File layout: header | planet slots | name entries.
+// Slot: id, version, last access, written at (8 bytes each), name/climate/terrain lengths (2 bytes each), UTF-8 text.
+// Name entry: name hash, id (8 bytes each).
+public class OffHeapPlanetStore implements AutoCloseable {
+
+    static final int MAGIC = 0x504C4E54;
+    static final int LAYOUT_VERSION = 1;
+
+    private static final int HEADER_SIZE = 64;
+    private static final int SLOT_HEADER_SIZE = 38;
+    private static final int NAME_ENTRY_SIZE = 16;
+    private static final int NAME_ENTRIES_PER_SLOT = 2;
+    private static final int LOCK_STRIPES = 64;
+    private static final long EMPTY = 0;
+    private static final long NO_VERSION = Long.MIN_VALUE;
+    private static final short NULL_TEXT = -1;
+
+    private final ByteBuffer buffer;
+    private final FileChannel channel;
+    private final int slotSize;
+    private final int ways;
+    private final int sets;
+    private final int nameSets;
+    private final int namesOffset;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final ReentrantLock[] nameLocks = new ReentrantLock[LOCK_STRIPES];
+    private final AtomicLong accessClock = new AtomicLong();
+    private final LongSupplier clock;
+
+    private OffHeapPlanetStore(ByteBuffer buffer, FileChannel channel, int sets, int slotSize, int ways, LongSupplier clock) {
+        this.buffer = buffer;
+        this.channel = channel;
+        this.slotSize = slotSize;
+        this.ways = ways;
+        this.sets = sets;
+        this.nameSets = sets * NAME_ENTRIES_PER_SLOT;
+        this.namesOffset = HEADER_SIZE + sets * ways * slotSize;
+        this.clock = clock;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+            nameLocks[i] = new ReentrantLock();
+        }
+
+        if (layoutMatches()) {
+            accessClock.set(lastAccess());
+        } else {
+            reset();
+        }
+    }
+
+    public static OffHeapPlanetStore inMemory(int slots, int slotSize, int ways, LongSupplier clock) {
+        int sets = sets(slots, ways);
+        return new OffHeapPlanetStore(ByteBuffer.allocateDirect(size(sets, slotSize, ways)), null, sets, slotSize, ways, clock);
+    }
+
+    // Entries written before a restart are served again if the file was written with the same layout.
+    public static OffHeapPlanetStore mapped(Path file, int slots, int slotSize, int ways, LongSupplier clock) {
+        int sets = sets(slots, ways);
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size(sets, slotSize, ways));
+            return new OffHeapPlanetStore(buffer, channel, sets, slotSize, ways, clock);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map planet cache file " + file, e);
+        }
+    }
+
+    public int capacity() {
+        return sets * ways;
+    }
+
+    public Optional<Planet> get(long id, long writtenAfter) {
+        return entry(id, writtenAfter).map(Entry::planet);
+    }
+
+    public Optional<Planet> getByName(String name, long writtenAfter) {
+        return entryByName(name, writtenAfter).map(Entry::planet);
+    }
+
+    public Optional<Entry> entry(long id, long writtenAfter) {
+        int set = setOf(id, sets);
+        ReentrantLock lock = locks[set % LOCK_STRIPES];
+        lock.lock();
+        try {
+            int offset = find(set, id);
+            if (offset < 0) {
+                return Optional.empty();
+            }
+            long writtenAt = buffer.getLong(offset + 24);
+            if (writtenAt < writtenAfter) {
+                buffer.putLong(offset, EMPTY);
+                return Optional.empty();
+            }
+            buffer.putLong(offset + 16, accessClock.incrementAndGet());
+            return Optional.of(new Entry(read(offset), writtenAt));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Optional<Entry> entryByName(String name, long writtenAfter) {
+        long hash = nameHash(name);
+        int set = setOf(hash, nameSets);
+        long[] candidates = new long[ways];
+        ReentrantLock lock = nameLocks[set % LOCK_STRIPES];
+        lock.lock();
+        try {
+            for (int way = 0; way < ways; way++) {
+                int offset = nameOffset(set, way);
+                candidates[way] = buffer.getLong(offset) == hash ? buffer.getLong(offset + 8) : EMPTY;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // The slot is authoritative: a renamed or evicted planet no longer matches and the stale entry is ignored.
+        for (long id : candidates) {
+            if (id != EMPTY) {
+                Optional<Entry> planet = entry(id, writtenAfter).filter(candidate -> name.equals(candidate.planet().getName()));
+                if (planet.isPresent()) {
+                    return planet;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public boolean put(Planet planet) {
+        byte[] name = utf8(planet.getName());
+        byte[] climate = utf8(planet.getClimate());
+        byte[] terrain = utf8(planet.getTerrain());
+        int length = SLOT_HEADER_SIZE + length(name) + length(climate) + length(terrain);
+        if (planet.getId() == null || planet.getId() == EMPTY || length > slotSize) {
+            return false;
+        }
+
+        long id = planet.getId();
+        int set = setOf(id, sets);
+        ReentrantLock lock = locks[set % LOCK_STRIPES];
+        lock.lock();
+        try {
+            int offset = find(set, id);
+            if (offset < 0) {
+                offset = victim(set);
+            }
+            // The id goes in last, so a slot torn by a crash mid-write reads as empty after a restart.
+            buffer.putLong(offset, EMPTY);
+            buffer.putLong(offset + 8, planet.getVersion() == null ? NO_VERSION : planet.getVersion());
+            buffer.putLong(offset + 16, accessClock.incrementAndGet());
+            buffer.putLong(offset + 24, clock.getAsLong());
+            int text = offset + SLOT_HEADER_SIZE;
+            text = write(offset + 32, text, name);
+            text = write(offset + 34, text, climate);
+            write(offset + 36, text, terrain);
+            buffer.putLong(offset, id);
+        } finally {
+            lock.unlock();
+        }
+
+        if (planet.getName() != null) {
+            putName(nameHash(planet.getName()), id);
+        }
+        return true;
+    }
+
+    public void remove(long id) {
+        int set = setOf(id, sets);
+        ReentrantLock lock = locks[set % LOCK_STRIPES];
+        lock.lock();
+        try {
+            int offset = find(set, id);
+            if (offset >= 0) {
+                buffer.putLong(offset, EMPTY);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void removeName(String name) {
+        long hash = nameHash(name);
+        int set = setOf(hash, nameSets);
+        ReentrantLock lock = nameLocks[set % LOCK_STRIPES];
+        lock.lock();
+        try {
+            for (int way = 0; way < ways; way++) {
+                int offset = nameOffset(set, way);
+                if (buffer.getLong(offset) == hash) {
+                    buffer.putLong(offset, EMPTY);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            ((MappedByteBuffer) buffer).force();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void putName(long hash, long id) {
+        int set = setOf(hash, nameSets);
+        ReentrantLock lock = nameLocks[set % LOCK_STRIPES];
+        lock.lock();
+        try {
+            int target = -1;
+            for (int way = 0; way < ways && target < 0; way++) {
+                int offset = nameOffset(set, way);
+                long stored = buffer.getLong(offset);
+                if (stored == hash || stored == EMPTY) {
+                    target = offset;
+                }
+            }
+            if (target < 0) {
+                // Name entries carry no access time; a full set gives up a way picked from the hash itself.
+                target = nameOffset(set, (int) Math.floorMod(hash >>> 32, (long) ways));
+            }
+            buffer.putLong(target + 8, id);
+            buffer.putLong(target, hash);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int find(int set, long id) {
+        for (int way = 0; way < ways; way++) {
+            int offset = slotOffset(set, way);
+            if (buffer.getLong(offset) == id) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    private int victim(int set) {
+        int victim = slotOffset(set, 0);
+        long oldest = Long.MAX_VALUE;
+        for (int way = 0; way < ways; way++) {
+            int offset = slotOffset(set, way);
+            if (buffer.getLong(offset) == EMPTY) {
+                return offset;
+            }
+            long access = buffer.getLong(offset + 16);
+            if (access < oldest) {
+                oldest = access;
+                victim = offset;
+            }
+        }
+        return victim;
+    }
+
+    private Planet read(int offset) {
+        long version = buffer.getLong(offset + 8);
+        short nameLength = buffer.getShort(offset + 32);
+        short climateLength = buffer.getShort(offset + 34);
+        short terrainLength = buffer.getShort(offset + 36);
+        int text = offset + SLOT_HEADER_SIZE;
+        String name = text(text, nameLength);
+        String climate = text(text + Math.max(nameLength, 0), climateLength);
+        String terrain = text(text + Math.max(nameLength, 0) + Math.max(climateLength, 0), terrainLength);
+        return new Planet(buffer.getLong(offset), name, climate, terrain, version == NO_VERSION ? null : version);
+    }
+
+    private int write(int lengthPosition, int textPosition, byte[] value) {
+        buffer.putShort(lengthPosition, value == null ? NULL_TEXT : (short) value.length);
+        if (value != null) {
+            buffer.put(textPosition, value);
+        }
+        return textPosition + length(value);
+    }
+
+    private String text(int position, short length) {
+        if (length == NULL_TEXT) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        buffer.get(position, value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private boolean layoutMatches() {
+        return buffer.getInt(0) == MAGIC
+                && buffer.getInt(4) == LAYOUT_VERSION
+                && buffer.getInt(8) == sets
+                && buffer.getInt(12) == ways
+                && buffer.getInt(16) == slotSize;
+    }
+
+    private void reset() {
+        for (int position = 0; position < buffer.capacity(); position += Long.BYTES) {
+            buffer.putLong(position, 0);
+        }
+        buffer.putInt(4, LAYOUT_VERSION);
+        buffer.putInt(8, sets);
+        buffer.putInt(12, ways);
+        buffer.putInt(16, slotSize);
+        buffer.putInt(0, MAGIC);
+    }
+
+    private long lastAccess() {
+        long last = 0;
+        for (int slot = 0; slot < sets * ways; slot++) {
+            last = Math.max(last, buffer.getLong(HEADER_SIZE + slot * slotSize + 16));
+        }
+        return last;
+    }
+
+    private int slotOffset(int set, int way) {
+        return HEADER_SIZE + (set * ways + way) * slotSize;
+    }
+
+    private int nameOffset(int set, int way) {
+        return namesOffset + (set * ways + way) * NAME_ENTRY_SIZE;
+    }
+
+    private static int sets(int slots, int ways) {
+        if (ways <= 0 || slots < ways) {
+            throw new IllegalArgumentException("The off-heap planet cache needs at least " + ways + " slots");
+        }
+        return slots / ways;
+    }
+
+    private static int size(int sets, int slotSize, int ways) {
+        if (slotSize < SLOT_HEADER_SIZE || slotSize > Short.MAX_VALUE || slotSize % Long.BYTES != 0) {
+            throw new IllegalArgumentException("Slot size must be a multiple of 8 between " + SLOT_HEADER_SIZE
+                    + " and " + Short.MAX_VALUE);
+        }
+        long size = HEADER_SIZE + (long) sets * ways * (slotSize + (long) NAME_ENTRIES_PER_SLOT * NAME_ENTRY_SIZE);
+        if (size > Integer.MAX_VALUE - Long.BYTES) {
+            throw new IllegalArgumentException("The off-heap planet cache is limited to 2 GB, asked for " + size + " bytes");
+        }
+        return (int) size;
+    }
+
+    private static int setOf(long key, int sets) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) Math.floorMod(mixed ^ (mixed >>> 32), (long) sets);
+    }
+
+    public record Entry(Planet planet, long writtenAt) {
+    }
+
+    private static long nameHash(String name) {
+        long hash = 1125899906842597L;
+        for (int i = 0; i < name.length(); i++) {
+            hash = 31 * hash + name.charAt(i);
+        }
+        // Zero marks an empty entry.
+        return hash == EMPTY ? 1 : hash;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] value) {
+        return value == null ? 0 : value.length;
+    }
+}
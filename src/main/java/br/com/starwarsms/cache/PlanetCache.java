@@ -0,0 +1,26 @@
+package br.com.starwarsms.cache;
+
+import br.com.starwarsms.domain.Planet;
+
+import java.util.Optional;
+
+public interface PlanetCache {
+
+    Optional<Planet> getById(Long id);
+
+    Optional<Planet> getByName(String name);
+
+    void put(Planet planet);
+
+    void evict(Long id);
+
+    // Evicts the planet and, for the ttl, refuses to cache it again below minVersion: a lookup that misses right
+    // after a write may still be answered by a replica that has not caught up.
+    void evict(Long id, long minVersion);
+
+    void evictName(String name);
+
+    static PlanetCache disabled() {
+        return NoOpPlanetCache.INSTANCE;
+    }
+}
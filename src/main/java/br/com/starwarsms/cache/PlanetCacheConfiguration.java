@@ -0,0 +1,25 @@
+package br.com.starwarsms.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(PlanetCacheProperties.class)
+public class PlanetCacheConfiguration {
+
+    @Bean
+    public PlanetCache planetCache(PlanetCacheProperties properties, MeterRegistry meterRegistry) {
+        if (!properties.enabled()) {
+            return PlanetCache.disabled();
+        }
+        OffHeapPlanetStore offHeap = properties.file() == null
+                ? OffHeapPlanetStore.inMemory(properties.offHeapSlots(), properties.slotSize(), properties.ways(),
+                        System::currentTimeMillis)
+                : OffHeapPlanetStore.mapped(properties.file(), properties.offHeapSlots(), properties.slotSize(),
+                        properties.ways(), System::currentTimeMillis);
+        return new TieredPlanetCache(offHeap, properties.nearSize(), properties.ttl(), System::currentTimeMillis,
+                meterRegistry);
+    }
+}
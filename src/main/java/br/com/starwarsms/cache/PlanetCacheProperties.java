@@ -0,0 +1,18 @@
+package br.com.starwarsms.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "starwars.cache")
+public record PlanetCacheProperties(
+        boolean enabled,
+        @DefaultValue("10000") int nearSize,
+        @DefaultValue("262144") int offHeapSlots,
+        @DefaultValue("256") int slotSize,
+        @DefaultValue("8") int ways,
+        Path file,
+        @DefaultValue("PT10M") Duration ttl) {
+}
@@ -0,0 +1,164 @@
+package br.com.starwarsms.cache;
+
+import br.com.starwarsms.domain.Planet;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+// A small LRU map on the heap in front of the off-heap store. Only the near tier holds Planet objects, so the
+// collector sees a few thousand of them no matter how many planets the off-heap tier keeps.
+public class TieredPlanetCache implements PlanetCache, AutoCloseable {
+
+    private final Map<Long, Entry> near;
+    private final Map<String, Long> nearNames;
+    private final Map<Long, Floor> floors;
+    private final OffHeapPlanetStore offHeap;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final Counter nearHits;
+    private final Counter offHeapHits;
+    private final Counter misses;
+
+    public TieredPlanetCache(OffHeapPlanetStore offHeap, int nearSize, Duration ttl, LongSupplier clock,
+                             MeterRegistry meterRegistry) {
+        this.near = lru(nearSize);
+        this.nearNames = lru(nearSize);
+        this.floors = lru(nearSize);
+        this.offHeap = offHeap;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.nearHits = lookups(meterRegistry, "near");
+        this.offHeapHits = lookups(meterRegistry, "off-heap");
+        this.misses = lookups(meterRegistry, "miss");
+    }
+
+    @Override
+    public Optional<Planet> getById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        long writtenAfter = clock.getAsLong() - ttlMillis;
+        Entry entry = near.get(id);
+        if (entry != null && entry.writtenAt() >= writtenAfter) {
+            nearHits.increment();
+            return Optional.of(copy(entry.planet()));
+        }
+        return promote(offHeap.entry(id, writtenAfter));
+    }
+
+    @Override
+    public Optional<Planet> getByName(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        long writtenAfter = clock.getAsLong() - ttlMillis;
+        Long id = nearNames.get(name);
+        Entry entry = id == null ? null : near.get(id);
+        // The entry is checked against the name, so a rename leaves a stale mapping behind but never a wrong answer.
+        if (entry != null && entry.writtenAt() >= writtenAfter && name.equals(entry.planet().getName())) {
+            nearHits.increment();
+            return Optional.of(copy(entry.planet()));
+        }
+        return promote(offHeap.entryByName(name, writtenAfter));
+    }
+
+    @Override
+    public void put(Planet planet) {
+        if (planet.getId() == null) {
+            return;
+        }
+        long now = clock.getAsLong();
+        Floor floor = floors.get(planet.getId());
+        if (floor != null && floor.setAt() >= now - ttlMillis
+                && (planet.getVersion() == null || planet.getVersion() < floor.minVersion())) {
+            return;
+        }
+        Planet copy = copy(planet);
+        near.put(copy.getId(), new Entry(copy, now));
+        if (copy.getName() != null) {
+            nearNames.put(copy.getName(), copy.getId());
+        }
+        offHeap.put(copy);
+    }
+
+    @Override
+    public void evict(Long id) {
+        if (id == null) {
+            return;
+        }
+        near.remove(id);
+        offHeap.remove(id);
+    }
+
+    @Override
+    public void evict(Long id, long minVersion) {
+        if (id == null) {
+            return;
+        }
+        floors.merge(id, new Floor(minVersion, clock.getAsLong()),
+                (current, next) -> new Floor(Math.max(current.minVersion(), next.minVersion()), next.setAt()));
+        evict(id);
+    }
+
+    @Override
+    public void evictName(String name) {
+        if (name == null) {
+            return;
+        }
+        nearNames.remove(name);
+        offHeap.removeName(name);
+    }
+
+    @Override
+    public void close() {
+        offHeap.close();
+    }
+
+    // The near entry keeps the off-heap write time, so promoting a planet never extends its TTL.
+    private Optional<Planet> promote(Optional<OffHeapPlanetStore.Entry> stored) {
+        if (stored.isEmpty()) {
+            misses.increment();
+            return Optional.empty();
+        }
+        offHeapHits.increment();
+        Planet planet = stored.get().planet();
+        near.put(planet.getId(), new Entry(planet, stored.get().writtenAt()));
+        if (planet.getName() != null) {
+            nearNames.put(planet.getName(), planet.getId());
+        }
+        return Optional.of(copy(planet));
+    }
+
+    // Callers get their own instance; the cached one is never handed out where it could be changed.
+    private static Planet copy(Planet planet) {
+        return new Planet(planet.getId(), planet.getName(), planet.getClimate(), planet.getTerrain(), planet.getVersion());
+    }
+
+    private static <K, V> Map<K, V> lru(int capacity) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("planets.cache.lookups")
+                .description("Planet cache lookups by the tier that answered them")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Entry(Planet planet, long writtenAt) {
+    }
+
+    private record Floor(long minVersion, long setAt) {
+    }
+}
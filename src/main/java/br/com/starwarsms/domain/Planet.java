@@ -1,18 +1,24 @@
 package br.com.starwarsms.domain;
 
 import br.com.starwarsms.jacoco.ExcludeFromJacocoGeneratedReport;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotEmpty;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLRestriction;
 
 @Entity
-@Table(name = "planets")
+@Table(name = "planets", indexes = @Index(name = "idx_planets_deleted", columnList = "deleted"))
+@SQLRestriction("deleted = false")
 public class Planet {
 
     @Id
@@ -31,11 +37,26 @@ public class Planet {
     @Column(nullable = false)
     private String terrain;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @JsonIgnore
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean deleted;
+
     public Planet(Long id, String name, String climate, String terrain) {
+        this(id, name, climate, terrain, null);
+    }
+
+    public Planet(Long id, String name, String climate, String terrain, Long version) {
         this.id = id;
         this.name = name;
         this.climate = climate;
         this.terrain = terrain;
+        this.version = version;
     }
 
     public Planet() {
@@ -57,6 +78,10 @@ public class Planet {
         return terrain;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     @Override
     public boolean equals(Object o) {
         return EqualsBuilder.reflectionEquals(this, o);
@@ -0,0 +1,95 @@
+package br.com.starwarsms.domain;
+
+import br.com.starwarsms.sharding.ShardRouter;
+import br.com.starwarsms.stats.PlanetAccessStatistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "starwars.planets.compaction.enabled", havingValue = "true", matchIfMissing = true)
+public class PlanetCompactionJob {
+
+    private final PlanetRepository planetRepository;
+
+    private final ShardRouter shardRouter;
+
+    private final PlanetAccessStatistics accessStatistics;
+
+    private final int batchSize;
+
+    private final int maxBatchesPerRun;
+
+    private final Duration pauseBetweenBatches;
+
+    private final long busyThreshold;
+
+    public PlanetCompactionJob(
+            PlanetRepository planetRepository,
+            ShardRouter shardRouter,
+            PlanetAccessStatistics accessStatistics,
+            @Value("${starwars.planets.compaction.batch-size:500}") int batchSize,
+            @Value("${starwars.planets.compaction.max-batches-per-run:20}") int maxBatchesPerRun,
+            @Value("${starwars.planets.compaction.pause-between-batches:PT0.2S}") Duration pauseBetweenBatches,
+            @Value("${starwars.planets.compaction.busy-threshold:1000}") long busyThreshold) {
+        this.planetRepository = planetRepository;
+        this.shardRouter = shardRouter;
+        this.accessStatistics = accessStatistics;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pauseBetweenBatches = pauseBetweenBatches;
+        this.busyThreshold = busyThreshold;
+    }
+
+    @Scheduled(cron = "${starwars.planets.compaction.cron:0 */5 1-5 * * *}")
+    public void compact() {
+        purgeTombstones();
+    }
+
+    public int purgeTombstones() {
+        int purged = 0;
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            purged += shardRouter.onShard(shard, this::compactShard);
+        }
+        return purged;
+    }
+
+    // Small batches with a pause in between keep each delete short and leave room for readers. The run stops
+    // before the next batch once the lookups in the current statistics window reach the busy threshold.
+    private int compactShard() {
+        int purged = 0;
+        for (int batch = 0; batch < maxBatchesPerRun && !busy(); batch++) {
+            List<Long> ids = planetRepository.findTombstoneIds(PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            purged += planetRepository.purgeTombstones(ids);
+            if (ids.size() < batchSize || !pause()) {
+                break;
+            }
+        }
+        return purged;
+    }
+
+    private boolean busy() {
+        return busyThreshold > 0 && accessStatistics.requestsInWindow() >= busyThreshold;
+    }
+
+    private boolean pause() {
+        if (pauseBetweenBatches.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseBetweenBatches);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,18 +1,104 @@
 package br.com.starwarsms.domain;
 
 import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.query.QueryByExampleExecutor;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+// Tombstoned planets are hidden from every entity read by the @SQLRestriction on Planet.
 @Repository
 public interface PlanetRepository extends CrudRepository<Planet, Long>, QueryByExampleExecutor<Planet> {
 
+    @Transactional(readOnly = true)
     Optional<Planet> findByName(String name);
 
+    @Transactional(readOnly = true)
+    List<Planet> findByNameIn(Collection<String> names);
+
     @Override
     <S extends Planet> List<S> findAll(Example<S> example);
+
+    // A read-write transaction, so the version comes from the primary.
+    @Transactional
+    @Query("SELECT p.version FROM Planet p WHERE p.id = :id AND p.deleted = false")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Planet p
+            SET p.name = COALESCE(:name, p.name),
+                p.climate = COALESCE(:climate, p.climate),
+                p.terrain = COALESCE(:terrain, p.terrain),
+                p.version = p.version + 1
+            WHERE p.id = :id AND p.version = :version AND p.deleted = false""")
+    int updateIfVersionMatches(
+            @Param("id") Long id,
+            @Param("version") Long version,
+            @Param("name") String name,
+            @Param("climate") String climate,
+            @Param("terrain") String terrain);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Planet p
+            SET p.name = COALESCE(:name, p.name),
+                p.climate = COALESCE(:climate, p.climate),
+                p.terrain = COALESCE(:terrain, p.terrain),
+                p.version = p.version + 1
+            WHERE p.id = :id AND p.version IN :versions AND p.deleted = false""")
+    int updateIfVersionIn(
+            @Param("id") Long id,
+            @Param("versions") Collection<Long> versions,
+            @Param("name") String name,
+            @Param("climate") String climate,
+            @Param("terrain") String terrain);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Planet p
+            SET p.name = COALESCE(:name, p.name),
+                p.climate = COALESCE(:climate, p.climate),
+                p.terrain = COALESCE(:terrain, p.terrain),
+                p.version = p.version + 1
+            WHERE p.id = :id AND p.deleted = false""")
+    int update(
+            @Param("id") Long id,
+            @Param("name") String name,
+            @Param("climate") String climate,
+            @Param("terrain") String terrain);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Planet p SET p.deleted = true, p.version = p.version + 1 WHERE p.id = :id AND p.deleted = false")
+    int markDeleted(@Param("id") Long id);
+
+    @Query(value = "SELECT id FROM planets WHERE deleted = true ORDER BY id", nativeQuery = true)
+    List<Long> findTombstoneIds(Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM planets WHERE deleted = true AND id IN (:ids)", nativeQuery = true)
+    int purgeTombstones(@Param("ids") List<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM planets WHERE deleted = true AND name = :name", nativeQuery = true)
+    int purgeTombstoneByName(@Param("name") String name);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM planets WHERE deleted = true AND name IN (:names)", nativeQuery = true)
+    int purgeTombstonesByName(@Param("names") Collection<String> names);
 }
@@ -1,10 +1,24 @@
 package br.com.starwarsms.domain;
 
+import br.com.starwarsms.cache.PlanetCache;
+import br.com.starwarsms.sharding.ShardRouter;
+import br.com.starwarsms.stats.PlanetAccessStatistics;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Example;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 import static br.com.starwarsms.domain.QueryBuilder.buildQuery;
 
@@ -13,28 +27,186 @@ public class PlanetService {
 
     private final PlanetRepository planetRepository;
 
-    public PlanetService(PlanetRepository planetRepository) {
+    private final PlanetAccessStatistics accessStatistics;
+
+    private final ShardRouter shardRouter;
+    private final PlanetCache planetCache;
+    private final TransactionTemplate transactionTemplate;
+
+    public PlanetService(PlanetRepository planetRepository, PlanetAccessStatistics accessStatistics,
+                         ShardRouter shardRouter, PlanetCache planetCache, PlatformTransactionManager transactionManager) {
         this.planetRepository = planetRepository;
+        this.accessStatistics = accessStatistics;
+        this.shardRouter = shardRouter;
+        this.planetCache = planetCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     public Planet createPlanet(Planet planet) {
-        return planetRepository.save(planet);
+        ensureNamesFree(List.of(planet.getName()), null);
+        Planet created = shardRouter.byName(planet.getName(), () -> saveReclaimingName(planet));
+        planetCache.evictName(created.getName());
+        return created;
+    }
+
+    public List<Planet> createPlanets(List<Planet> planets) {
+        ensureNamesFree(planets.stream().map(Planet::getName).toList(), null);
+        return shardRouter.partitioned(planets, Planet::getName, shardPlanets -> {
+            List<Planet> created = new ArrayList<>(shardPlanets.size());
+            // Tombstones go first, in the same transaction, so the batch can reuse their names without a retry.
+            transactionTemplate.executeWithoutResult(status -> {
+                planetRepository.purgeTombstonesByName(shardPlanets.stream().map(Planet::getName).toList());
+                planetRepository.saveAll(shardPlanets).forEach(planet -> created.add(checkPlacement(planet)));
+            });
+            created.forEach(planet -> planetCache.evictName(planet.getName()));
+            return created;
+        });
     }
 
+    // Lookups are not transactional themselves: a cache hit must not borrow a connection. The repository reads
+    // run in their own read-only transactions instead.
     public Optional<Planet> getPlanetById(Long id) {
-        return planetRepository.findById(id);
+        accessStatistics.recordId(id);
+        return planetCache.getById(id)
+                .or(() -> cached(shardRouter.byId(id, () -> planetRepository.findById(id))));
     }
 
     public Optional<Planet> getPlanetByName(String name) {
-        return planetRepository.findByName(name);
+        accessStatistics.recordName(name);
+        return planetCache.getByName(name).or(() -> cached(findByName(name)));
     }
 
     public List<Planet> getPlanets(String climate, String terrain) {
+        accessStatistics.recordFilter(climate, terrain);
         Example<Planet> quey = buildQuery(new Planet(null, null, climate, terrain));
-        return planetRepository.findAll(quey);
+        return shardRouter.scatter(() -> planetRepository.findAll(quey));
+    }
+
+    public Optional<Long> updatePlanet(Long id, Long expectedVersion, Planet changes) {
+        return updatePlanetIfVersionIn(id, expectedVersion == null ? null : Set.of(expectedVersion), changes);
+    }
+
+    // The update applies when the planet is at any of the given versions; null means no precondition at all.
+    public Optional<Long> updatePlanetIfVersionIn(Long id, Set<Long> acceptedVersions, Planet changes) {
+        if (changes.getName() != null) {
+            ensureNamesFree(List.of(changes.getName()), id);
+        }
+        return shardRouter.byId(id, () -> updateOnShard(id, acceptedVersions, changes));
     }
 
     public void deletePlanet(Long id) {
-        planetRepository.deleteById(id);
+        // A single UPDATE sets the tombstone; PlanetCompactionJob removes the row later.
+        int deleted = shardRouter.byId(id, () -> planetRepository.markDeleted(id));
+        // Ids are never reused, so no later version of a deleted planet may be cached.
+        evictAfterCommit(id, Long.MAX_VALUE);
+        if (deleted == 0) {
+            throw new EmptyResultDataAccessException("No planet with id " + id, 1);
+        }
+    }
+
+    private Optional<Planet> findByName(String name) {
+        Optional<Planet> planet = shardRouter.byName(name, () -> planetRepository.findByName(name));
+        if (planet.isPresent() || shardRouter.shardCount() == 1) {
+            return planet;
+        }
+        // A rename keeps the planet on the shard its id points to, so a miss on the home shard asks the others.
+        return shardRouter.scatter(() -> planetRepository.findByName(name).stream().toList()).stream().findFirst();
+    }
+
+    // Each shard only enforces unique names among its own rows, and a renamed planet stays on the shard its id
+    // points to, so the name may be taken on any shard. Two concurrent writers can still race past this check.
+    private void ensureNamesFree(Collection<String> names, Long planetId) {
+        if (shardRouter.shardCount() == 1 || names.isEmpty()) {
+            return;
+        }
+        shardRouter.scatter(() -> planetRepository.findByNameIn(names)).stream()
+                .filter(existing -> !Objects.equals(existing.getId(), planetId))
+                .findFirst()
+                .ifPresent(existing -> {
+                    throw new DataIntegrityViolationException("Planet name already in use: " + existing.getName());
+                });
+    }
+
+    // Not every database can cap an identity column, so a shard that runs past its id range is caught here and the
+    // insert rolled back, before the new id would route to another shard.
+    private Planet checkPlacement(Planet planet) {
+        int shard = shardRouter.shardForName(planet.getName());
+        if (shardRouter.shardForId(planet.getId()) != shard) {
+            throw new IllegalStateException("Shard " + shard + " generated id " + planet.getId() + " outside its id range");
+        }
+        return planet;
+    }
+
+    // Evicting before the write commits would let a concurrent lookup cache the old row again. The repository
+    // writes commit on their own; a caller's surrounding transaction defers the eviction until it commits too.
+    // Lookups read from the replica, so the cache also refuses anything older than the version just written.
+    private void evictAfterCommit(Long id, long minVersion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            planetCache.evict(id, minVersion);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                planetCache.evict(id, minVersion);
+            }
+        });
+    }
+
+    private Optional<Planet> cached(Optional<Planet> planet) {
+        planet.ifPresent(planetCache::put);
+        return planet;
+    }
+
+    private Planet saveReclaimingName(Planet planet) {
+        try {
+            return save(planet);
+        } catch (DataIntegrityViolationException e) {
+            // A tombstone keeps its unique name until compaction reaches it.
+            if (planetRepository.purgeTombstoneByName(planet.getName()) == 0) {
+                throw e;
+            }
+            return save(planet);
+        }
+    }
+
+    private Planet save(Planet planet) {
+        return transactionTemplate.execute(status -> checkPlacement(planetRepository.save(planet)));
+    }
+
+    private Optional<Long> updateOnShard(Long id, Set<Long> acceptedVersions, Planet changes) {
+        if (acceptedVersions == null) {
+            // No precondition, so the last writer wins: one UPDATE, then the version it wrote, read back while the
+            // update still holds the row lock.
+            Optional<Long> written = transactionTemplate.execute(status ->
+                    planetRepository.update(id, changes.getName(), changes.getClimate(), changes.getTerrain()) == 0
+                            ? Optional.<Long>empty()
+                            : planetRepository.findVersionById(id));
+            written.ifPresent(version -> evictAfterCommit(id, version));
+            return written;
+        }
+
+        Optional<Long> written;
+        if (acceptedVersions.size() == 1) {
+            long version = acceptedVersions.iterator().next();
+            int updated = planetRepository.updateIfVersionMatches(
+                    id, version, changes.getName(), changes.getClimate(), changes.getTerrain());
+            written = updated == 0 ? Optional.empty() : Optional.of(version + 1);
+        } else {
+            // Any of several versions may have matched, so the one written is read back like above.
+            written = transactionTemplate.execute(status -> planetRepository.updateIfVersionIn(
+                    id, acceptedVersions, changes.getName(), changes.getClimate(), changes.getTerrain()) == 0
+                    ? Optional.<Long>empty()
+                    : planetRepository.findVersionById(id));
+        }
+        if (written.isEmpty()) {
+            // Only the failure path pays for telling a missing planet apart from a stale version.
+            if (planetRepository.findVersionById(id).isEmpty()) {
+                return Optional.empty();
+            }
+            throw new OptimisticLockingFailureException("Planet " + id + " is at none of the versions " + acceptedVersions);
+        }
+        evictAfterCommit(id, written.get());
+        return written;
     }
 }
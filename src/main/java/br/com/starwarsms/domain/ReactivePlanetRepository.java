@@ -0,0 +1,98 @@
+package br.com.starwarsms.domain;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// R2DBC talks to a single database and cannot follow the shard routing, so /reactive/planets is off with sharding.
+@Repository
+@ConditionalOnProperty(prefix = "starwars.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class ReactivePlanetRepository {
+
+    private static final String SELECT_PLANETS = "SELECT id, name, climate, terrain, version FROM planets";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactivePlanetRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<Planet> save(Planet planet) {
+        // A tombstone keeps its unique name until compaction reaches it.
+        return insert(planet).onErrorResume(DataIntegrityViolationException.class, e -> purgeTombstoneByName(planet.getName())
+                .flatMap(purged -> purged == 0 ? Mono.error(e) : insert(planet)));
+    }
+
+    public Mono<Planet> findById(Long id) {
+        return databaseClient.sql(SELECT_PLANETS + " WHERE id = :id AND deleted = false")
+                .bind("id", id)
+                .map(ReactivePlanetRepository::toPlanet)
+                .one();
+    }
+
+    public Mono<Planet> findByName(String name) {
+        return databaseClient.sql(SELECT_PLANETS + " WHERE name = :name AND deleted = false")
+                .bind("name", name)
+                .map(ReactivePlanetRepository::toPlanet)
+                .one();
+    }
+
+    public Flux<Planet> findAll(String climate, String terrain) {
+        // Same semantics as QueryBuilder: every given filter must match, ignoring case.
+        StringBuilder sql = new StringBuilder(SELECT_PLANETS).append(" WHERE deleted = false");
+        if (climate != null) {
+            sql.append(" AND LOWER(climate) = LOWER(:climate)");
+        }
+        if (terrain != null) {
+            sql.append(" AND LOWER(terrain) = LOWER(:terrain)");
+        }
+
+        DatabaseClient.GenericExecuteSpec query = databaseClient.sql(sql.toString());
+        if (climate != null) {
+            query = query.bind("climate", climate);
+        }
+        if (terrain != null) {
+            query = query.bind("terrain", terrain);
+        }
+        return query.map(ReactivePlanetRepository::toPlanet).all();
+    }
+
+    public Mono<Long> deleteById(Long id) {
+        return databaseClient.sql("UPDATE planets SET deleted = true, version = version + 1 WHERE id = :id AND deleted = false")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> purgeTombstoneByName(String name) {
+        return databaseClient.sql("DELETE FROM planets WHERE deleted = true AND name = :name")
+                .bind("name", name)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private Mono<Planet> insert(Planet planet) {
+        return databaseClient.sql("INSERT INTO planets (name, climate, terrain) VALUES (:name, :climate, :terrain)")
+                .bind("name", planet.getName())
+                .bind("climate", planet.getClimate())
+                .bind("terrain", planet.getTerrain())
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .map(id -> new Planet(id, planet.getName(), planet.getClimate(), planet.getTerrain()));
+    }
+
+    private static Planet toPlanet(Row row, RowMetadata metadata) {
+        return new Planet(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("climate", String.class),
+                row.get("terrain", String.class),
+                row.get("version", Long.class));
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.starwarsms.domain;
+
+import br.com.starwarsms.cache.PlanetCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@ConditionalOnProperty(prefix = "starwars.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class ReactivePlanetService {
+
+    private final ReactivePlanetRepository planetRepository;
+    private final PlanetCache planetCache;
+
+    // Writes here share the store with /planets, so they invalidate the same cache PlanetService fills.
+    public ReactivePlanetService(ReactivePlanetRepository planetRepository, PlanetCache planetCache) {
+        this.planetRepository = planetRepository;
+        this.planetCache = planetCache;
+    }
+
+    public Mono<Planet> createPlanet(Planet planet) {
+        return planetRepository.save(planet).doOnNext(created -> planetCache.evictName(created.getName()));
+    }
+
+    public Mono<Planet> getPlanetById(Long id) {
+        return planetRepository.findById(id);
+    }
+
+    public Mono<Planet> getPlanetByName(String name) {
+        return planetRepository.findByName(name);
+    }
+
+    public Flux<Planet> getPlanets(String climate, String terrain) {
+        return planetRepository.findAll(climate, terrain);
+    }
+
+    public Mono<Void> deletePlanet(Long id) {
+        return planetRepository.deleteById(id)
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.error(new EmptyResultDataAccessException("No planet with id " + id, 1))
+                        : Mono.<Void>fromRunnable(() -> planetCache.evict(id, Long.MAX_VALUE)));
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.starwarsms.enrichment;
+
+import br.com.starwarsms.domain.Planet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+
+@Component
+public class ClimateCategoryStage implements EnrichmentStage {
+
+    static final String UNKNOWN = "unknown";
+    static final String OTHER = "other";
+
+    private static final Map<String, String> CATEGORIES = Map.ofEntries(
+            Map.entry("arid", "arid"),
+            Map.entry("dry", "arid"),
+            Map.entry("hot", "arid"),
+            Map.entry("superheated", "arid"),
+            Map.entry("temperate", "temperate"),
+            Map.entry("artificial temperate", "temperate"),
+            Map.entry("moderate", "temperate"),
+            Map.entry("tropical", "tropical"),
+            Map.entry("humid", "tropical"),
+            Map.entry("frozen", "frozen"),
+            Map.entry("frigid", "frozen"),
+            Map.entry("cold", "frozen"),
+            Map.entry("arctic", "frozen"),
+            Map.entry("artic", "frozen"),
+            Map.entry("subarctic", "frozen"),
+            Map.entry("subartic", "frozen"),
+            Map.entry("murky", "wet"),
+            Map.entry("moist", "wet"),
+            Map.entry("rainy", "wet"),
+            Map.entry("wet", "wet"));
+
+    private final TokenDictionary<String> dictionary;
+
+    public ClimateCategoryStage(@Value("${starwars.enrichment.dictionary-size:10000}") int dictionarySize) {
+        this.dictionary = new TokenDictionary<>(dictionarySize);
+    }
+
+    @Override
+    public Expansion expansion() {
+        return Expansion.CLIMATE_CATEGORY;
+    }
+
+    @Override
+    public PlanetEnrichment apply(Planet planet, PlanetEnrichment enrichment) {
+        String climate = planet.getClimate();
+        return enrichment.withClimateCategory(climate == null ? UNKNOWN : dictionary.lookup(climate, ClimateCategoryStage::categorize));
+    }
+
+    // A climate such as "temperate, tropical" falls into the category of its first recognised token.
+    static String categorize(String climate) {
+        String category = null;
+        for (String token : climate.split(",")) {
+            String normalized = token.trim().toLowerCase(Locale.ROOT);
+            if (normalized.isEmpty() || normalized.equals(UNKNOWN)) {
+                continue;
+            }
+            category = CATEGORIES.get(normalized);
+            if (category != null) {
+                return category;
+            }
+            category = OTHER;
+        }
+        return category == null ? UNKNOWN : category;
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.starwarsms.enrichment;
+
+import br.com.starwarsms.domain.Planet;
+
+// Stages are called from several threads at once for large lists and must not keep per-call state.
+public interface EnrichmentStage {
+
+    Expansion expansion();
+
+    PlanetEnrichment apply(Planet planet, PlanetEnrichment enrichment);
+}
@@ -0,0 +1,25 @@
+package br.com.starwarsms.enrichment;
+
+import java.util.Arrays;
+
+public enum Expansion {
+    CLIMATE_CATEGORY("climateCategory"),
+    TERRAIN_TAGS("terrainTags");
+
+    private final String parameter;
+
+    Expansion(String parameter) {
+        this.parameter = parameter;
+    }
+
+    public String parameter() {
+        return parameter;
+    }
+
+    public static Expansion fromParameter(String parameter) {
+        return Arrays.stream(values())
+                .filter(expansion -> expansion.parameter.equalsIgnoreCase(parameter.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown expansion: " + parameter));
+    }
+}
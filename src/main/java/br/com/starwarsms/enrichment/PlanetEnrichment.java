@@ -0,0 +1,16 @@
+package br.com.starwarsms.enrichment;
+
+import java.util.List;
+
+public record PlanetEnrichment(String climateCategory, List<String> terrainTags) {
+
+    public static final PlanetEnrichment NONE = new PlanetEnrichment(null, null);
+
+    public PlanetEnrichment withClimateCategory(String climateCategory) {
+        return new PlanetEnrichment(climateCategory, terrainTags);
+    }
+
+    public PlanetEnrichment withTerrainTags(List<String> terrainTags) {
+        return new PlanetEnrichment(climateCategory, terrainTags);
+    }
+}
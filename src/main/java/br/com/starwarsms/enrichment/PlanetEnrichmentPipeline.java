@@ -0,0 +1,47 @@
+package br.com.starwarsms.enrichment;
+
+import br.com.starwarsms.domain.Planet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Component
+public class PlanetEnrichmentPipeline {
+
+    private final List<EnrichmentStage> stages;
+    private final int parallelThreshold;
+
+    public PlanetEnrichmentPipeline(
+            List<EnrichmentStage> stages,
+            @Value("${starwars.enrichment.parallel-threshold:2048}") int parallelThreshold) {
+        this.stages = stages.stream().sorted(Comparator.comparing(EnrichmentStage::expansion)).toList();
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    // Returns one enrichment per planet, in the same order. Every stage is cheap once the dictionaries are warm,
+    // so lists are only split across the fork-join pool when they are long enough to pay for the hand-off.
+    public List<PlanetEnrichment> enrich(List<Planet> planets, Set<Expansion> expansions) {
+        Function<Planet, PlanetEnrichment> enricher = enricher(expansions);
+        Stream<Planet> stream = planets.size() >= parallelThreshold ? planets.parallelStream() : planets.stream();
+        return stream.map(enricher).toList();
+    }
+
+    // For planets that arrive one at a time, such as a streamed result; the stages are selected once up front.
+    public Function<Planet, PlanetEnrichment> enricher(Set<Expansion> expansions) {
+        List<EnrichmentStage> selected = stages.stream().filter(stage -> expansions.contains(stage.expansion())).toList();
+        return planet -> enrich(planet, selected);
+    }
+
+    private static PlanetEnrichment enrich(Planet planet, List<EnrichmentStage> stages) {
+        PlanetEnrichment enrichment = PlanetEnrichment.NONE;
+        for (EnrichmentStage stage : stages) {
+            enrichment = stage.apply(planet, enrichment);
+        }
+        return enrichment;
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.starwarsms.enrichment;
+
+import br.com.starwarsms.domain.Planet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+@Component
+public class TerrainTagsStage implements EnrichmentStage {
+
+    private final TokenDictionary<List<String>> terrains;
+    private final TokenDictionary<String> tags;
+
+    public TerrainTagsStage(@Value("${starwars.enrichment.dictionary-size:10000}") int dictionarySize) {
+        this.terrains = new TokenDictionary<>(dictionarySize);
+        this.tags = new TokenDictionary<>(dictionarySize);
+    }
+
+    @Override
+    public Expansion expansion() {
+        return Expansion.TERRAIN_TAGS;
+    }
+
+    @Override
+    public PlanetEnrichment apply(Planet planet, PlanetEnrichment enrichment) {
+        String terrain = planet.getTerrain();
+        return enrichment.withTerrainTags(terrain == null ? List.of() : terrains.lookup(terrain, this::parse));
+    }
+
+    // "grasslands, Mountains" and "mountains, grasslands" share the same "mountains" instance.
+    private List<String> parse(String terrain) {
+        return Arrays.stream(terrain.split(","))
+                .map(tag -> tag.trim().toLowerCase(Locale.ROOT))
+                .filter(tag -> !tag.isEmpty())
+                .distinct()
+                .map(tag -> tags.lookup(tag, parsed -> parsed))
+                .toList();
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.starwarsms.enrichment;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Remembers what a raw value parsed to, so the handful of distinct climates and terrains are parsed once and every
+// planet sharing one gets the same instance back. Past maxSize new values are parsed but no longer remembered.
+public class TokenDictionary<V> {
+
+    private final ConcurrentHashMap<String, V> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    public TokenDictionary(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public V lookup(String token, Function<String, V> parser) {
+        V value = entries.get(token);
+        if (value != null) {
+            return value;
+        }
+        value = parser.apply(token);
+        if (entries.size() < maxSize) {
+            V previous = entries.putIfAbsent(token, value);
+            if (previous != null) {
+                return previous;
+            }
+        }
+        return value;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
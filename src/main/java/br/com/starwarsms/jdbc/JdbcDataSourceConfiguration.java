@@ -0,0 +1,23 @@
+package br.com.starwarsms.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Boot's DataSourceAutoConfiguration backs off as soon as the R2DBC ConnectionFactory exists, which would leave JPA
+// without a DataSource. The single JDBC pool is declared here; the sharded and replica setups declare their own.
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+@ConditionalOnExpression("!${starwars.sharding.enabled:false} and '${starwars.datasource.replica.url:}' == ''")
+public class JdbcDataSourceConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
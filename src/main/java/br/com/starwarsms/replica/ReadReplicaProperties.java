@@ -0,0 +1,7 @@
+package br.com.starwarsms.replica;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "starwars.datasource.replica")
+public record ReadReplicaProperties(String url, String username, String password) {
+}
@@ -0,0 +1,39 @@
+package br.com.starwarsms.sharding;
+
+// Places planets by hash of name and interleaves identity values: shard s hands out s + 1, s + 1 + n, s + 1 + 2n...
+public class HashShardingStrategy implements ShardingStrategy {
+
+    private final int shards;
+
+    public HashShardingStrategy(int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = shards;
+    }
+
+    @Override
+    public int shardCount() {
+        return shards;
+    }
+
+    @Override
+    public int shardForName(String name) {
+        return Math.floorMod(name.hashCode(), shards);
+    }
+
+    @Override
+    public int shardForId(long id) {
+        return (int) Math.floorMod(id - 1, (long) shards);
+    }
+
+    @Override
+    public long firstId(int shard) {
+        return shard + 1L;
+    }
+
+    @Override
+    public long idIncrement() {
+        return shards;
+    }
+}
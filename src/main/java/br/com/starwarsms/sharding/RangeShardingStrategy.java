@@ -0,0 +1,46 @@
+package br.com.starwarsms.sharding;
+
+// Places planets by hash of name and gives every shard its own contiguous block of rangeSize ids.
+public class RangeShardingStrategy implements ShardingStrategy {
+
+    private final int shards;
+    private final long rangeSize;
+
+    public RangeShardingStrategy(int shards, long rangeSize) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        if (rangeSize < 1) {
+            throw new IllegalArgumentException("rangeSize must be positive");
+        }
+        this.shards = shards;
+        this.rangeSize = rangeSize;
+    }
+
+    @Override
+    public int shardCount() {
+        return shards;
+    }
+
+    @Override
+    public int shardForName(String name) {
+        return Math.floorMod(name.hashCode(), shards);
+    }
+
+    // The last shard has no block after it and keeps every id past its start. Any other shard that runs past its
+    // block would hand out ids owned by the next one; PlanetService rejects those inserts.
+    @Override
+    public int shardForId(long id) {
+        return (int) Math.min(Math.max(id - 1, 0) / rangeSize, shards - 1);
+    }
+
+    @Override
+    public long firstId(int shard) {
+        return shard * rangeSize + 1;
+    }
+
+    @Override
+    public long idIncrement() {
+        return 1;
+    }
+}
@@ -0,0 +1,149 @@
+package br.com.starwarsms.sharding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public class ShardRouter implements AutoCloseable {
+
+    private final ShardingStrategy strategy;
+    private final ThreadPoolExecutor fanOut;
+
+    private ShardRouter() {
+        this.strategy = null;
+        this.fanOut = null;
+    }
+
+    public ShardRouter(ShardingStrategy strategy, int fanOutThreads) {
+        this.strategy = strategy;
+
+        AtomicInteger threads = new AtomicInteger();
+        // Bounded on both ends: a full queue runs the shard query on the caller instead of piling up work.
+        // Callers reach scatter() outside any transaction, so a query run on the caller still picks its own shard.
+        this.fanOut = new ThreadPoolExecutor(fanOutThreads, fanOutThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(fanOutThreads * strategy.shardCount()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "planet-shard-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.fanOut.allowCoreThreadTimeOut(true);
+    }
+
+    public static ShardRouter single() {
+        return new ShardRouter();
+    }
+
+    public int shardCount() {
+        return strategy == null ? 1 : strategy.shardCount();
+    }
+
+    public int shardForName(String name) {
+        return strategy == null || name == null ? 0 : strategy.shardForName(name);
+    }
+
+    public int shardForId(Long id) {
+        return strategy == null || id == null ? 0 : strategy.shardForId(id);
+    }
+
+    public <T> T onShard(int shard, Supplier<T> work) {
+        if (strategy == null) {
+            return work.get();
+        }
+        Integer previous = ShardContext.current();
+        ShardContext.set(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    public <T> T byId(Long id, Supplier<T> work) {
+        return onShard(shardForId(id), work);
+    }
+
+    public <T> T byName(String name, Supplier<T> work) {
+        return onShard(shardForName(name), work);
+    }
+
+    public <T> List<T> scatter(Supplier<List<T>> query) {
+        if (shardCount() == 1) {
+            return onShard(0, query);
+        }
+
+        List<Future<List<T>>> futures = new ArrayList<>(shardCount());
+        for (int shard = 0; shard < shardCount(); shard++) {
+            int target = shard;
+            futures.add(fanOut.submit(() -> onShard(target, query)));
+        }
+
+        List<T> merged = new ArrayList<>();
+        for (Future<List<T>> future : futures) {
+            merged.addAll(await(future));
+        }
+        return merged;
+    }
+
+    // Runs work once per shard with the items that live there and puts the results back in the original order.
+    public <T, R> List<R> partitioned(List<T> items, Function<T, String> name, Function<List<T>, List<R>> work) {
+        if (shardCount() == 1) {
+            return onShard(0, () -> work.apply(items));
+        }
+
+        List<List<Integer>> positions = new ArrayList<>(shardCount());
+        for (int shard = 0; shard < shardCount(); shard++) {
+            positions.add(new ArrayList<>());
+        }
+        for (int i = 0; i < items.size(); i++) {
+            positions.get(shardForName(name.apply(items.get(i)))).add(i);
+        }
+
+        Object[] results = new Object[items.size()];
+        for (int shard = 0; shard < shardCount(); shard++) {
+            List<Integer> indexes = positions.get(shard);
+            if (indexes.isEmpty()) {
+                continue;
+            }
+            List<T> slice = indexes.stream().map(items::get).toList();
+            List<R> saved = onShard(shard, () -> work.apply(slice));
+            for (int i = 0; i < indexes.size(); i++) {
+                results[indexes.get(i)] = saved.get(i);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        List<R> ordered = (List<R>) (List<?>) Arrays.asList(results);
+        return ordered;
+    }
+
+    @Override
+    public void close() {
+        if (fanOut != null) {
+            fanOut.shutdown();
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shard", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
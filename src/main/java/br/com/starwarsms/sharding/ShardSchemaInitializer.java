@@ -0,0 +1,71 @@
+package br.com.starwarsms.sharding;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class ShardSchemaInitializer implements InitializingBean {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ShardRoutingDataSource shardRoutingDataSource;
+    private final ShardingStrategy strategy;
+    private final ShardRouter shardRouter;
+
+    public ShardSchemaInitializer(
+            EntityManagerFactory entityManagerFactory,
+            ShardRoutingDataSource shardRoutingDataSource,
+            ShardingStrategy strategy,
+            ShardRouter shardRouter) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.shardRoutingDataSource = shardRoutingDataSource;
+        this.strategy = strategy;
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        for (int shard = 0; shard < strategy.shardCount(); shard++) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(shardRoutingDataSource.shard(shard));
+            Long planets = countPlanets(jdbcTemplate);
+            if (planets == null) {
+                // Hibernate only manages the schema of the default shard at startup.
+                shardRouter.onShard(shard, () -> {
+                    sessionFactory.getSchemaManager().exportMappedObjects(true);
+                    return null;
+                });
+                planets = 0L;
+            }
+            if (planets == 0) {
+                alignIdentity(jdbcTemplate, shard);
+            }
+        }
+    }
+
+    private static Long countPlanets(JdbcTemplate jdbcTemplate) {
+        try {
+            return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM planets", Long.class);
+        } catch (DataAccessException e) {
+            return null;
+        }
+    }
+
+    private void alignIdentity(JdbcTemplate jdbcTemplate, int shard) {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        long firstId = strategy.firstId(shard);
+
+        if ("H2".equals(database)) {
+            jdbcTemplate.execute("ALTER TABLE planets ALTER COLUMN id RESTART WITH " + firstId);
+            jdbcTemplate.execute("ALTER TABLE planets ALTER COLUMN id SET INCREMENT BY " + strategy.idIncrement());
+        } else if ("MySQL".equals(database)) {
+            // The increment itself is a session setting, applied by the shard pool's connection init SQL.
+            jdbcTemplate.execute("ALTER TABLE planets AUTO_INCREMENT = " + firstId);
+        } else {
+            throw new IllegalStateException("Cannot align planet ids on " + database);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.starwarsms.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfiguration {
+
+    @Bean
+    public ShardRouter shardRouter(ObjectProvider<ShardingStrategy> shardingStrategy, ShardingProperties properties) {
+        ShardingStrategy strategy = shardingStrategy.getIfAvailable();
+        return strategy == null ? ShardRouter.single() : new ShardRouter(strategy, properties.fanOutThreads());
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "starwars.sharding.enabled", havingValue = "true")
+    static class ShardedDataSourceConfiguration {
+
+        @Bean
+        public ShardingStrategy shardingStrategy(ShardingProperties properties) {
+            int shards = properties.shards().size();
+            if (shards == 0) {
+                throw new IllegalStateException("starwars.sharding.shards must list at least one datasource");
+            }
+            return switch (properties.strategy()) {
+                case HASH -> new HashShardingStrategy(shards);
+                case RANGE -> new RangeShardingStrategy(shards, properties.rangeSize());
+            };
+        }
+
+        @Bean
+        public ShardRoutingDataSource shardRoutingDataSource(
+                ShardingProperties properties,
+                ShardingStrategy strategy,
+                ObjectProvider<MeterRegistry> meterRegistry,
+                @Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+            // An open EntityManager keeps the connection of the first shard it touched for the whole request.
+            if (openInView) {
+                throw new IllegalStateException("Sharding requires spring.jpa.open-in-view=false");
+            }
+
+            List<HikariDataSource> shards = new ArrayList<>();
+            for (int shard = 0; shard < properties.shards().size(); shard++) {
+                ShardingProperties.Shard settings = properties.shards().get(shard);
+                HikariDataSource dataSource = DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .url(settings.url())
+                        .username(settings.username())
+                        .password(settings.password())
+                        .build();
+                dataSource.setPoolName("planets-shard-" + shard);
+                dataSource.setMaximumPoolSize(properties.poolSize());
+                // Shard pools are not beans, so the actuator does not bind their hikaricp.* meters on its own.
+                meterRegistry.ifAvailable(registry ->
+                        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+                if (settings.url().startsWith("jdbc:mysql:") && strategy.idIncrement() > 1) {
+                    dataSource.setConnectionInitSql("SET SESSION auto_increment_increment = " + strategy.idIncrement()
+                            + ", auto_increment_offset = " + strategy.firstId(shard));
+                }
+                shards.add(dataSource);
+            }
+            return new ShardRoutingDataSource(shards);
+        }
+
+        // Lazy connections let the shard be chosen at the first statement, even inside an already open transaction.
+        @Bean
+        @Primary
+        public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+            return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+        }
+
+        @Bean
+        public ShardSchemaInitializer shardSchemaInitializer(
+                EntityManagerFactory entityManagerFactory,
+                ShardRoutingDataSource shardRoutingDataSource,
+                ShardingStrategy strategy,
+                ShardRouter shardRouter) {
+            return new ShardSchemaInitializer(entityManagerFactory, shardRoutingDataSource, strategy, shardRouter);
+        }
+    }
+}
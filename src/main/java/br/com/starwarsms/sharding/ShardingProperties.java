@@ -0,0 +1,27 @@
+package br.com.starwarsms.sharding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+@ConfigurationProperties(prefix = "starwars.sharding")
+public record ShardingProperties(
+        boolean enabled,
+        @DefaultValue("hash") Strategy strategy,
+        @DefaultValue("1000000000") long rangeSize,
+        @DefaultValue("4") int fanOutThreads,
+        @DefaultValue("10") int poolSize,
+        List<Shard> shards) {
+
+    public ShardingProperties {
+        shards = shards == null ? List.of() : List.copyOf(shards);
+    }
+
+    public enum Strategy {
+        HASH, RANGE
+    }
+
+    public record Shard(String url, String username, String password) {
+    }
+}
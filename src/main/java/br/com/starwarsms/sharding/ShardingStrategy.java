@@ -0,0 +1,14 @@
+package br.com.starwarsms.sharding;
+
+public interface ShardingStrategy {
+
+    int shardCount();
+
+    int shardForName(String name);
+
+    int shardForId(long id);
+
+    long firstId(int shard);
+
+    long idIncrement();
+}
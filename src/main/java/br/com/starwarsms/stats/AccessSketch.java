@@ -0,0 +1,234 @@
+package br.com.starwarsms.stats;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+// Count-Min sketch plus a fixed-size top-k table. Estimates cover the current window and the one before it.
+// Recording only touches preallocated arrays; a contended top-k update is skipped, hot keys come back soon enough.
+public class AccessSketch {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L
+    };
+
+    private final int depth;
+    private final int widthMask;
+    private final long windowNanos;
+    private final LongSupplier clock;
+
+    private volatile AtomicLongArray current;
+    private volatile AtomicLongArray previous;
+    private final AtomicLong currentTotal = new AtomicLong();
+    private volatile long previousTotal;
+    private volatile long windowStart;
+
+    private final ReentrantLock topLock = new ReentrantLock();
+    private final Object[] topFirst;
+    private final Object[] topSecond;
+    private final long[] topCount;
+    private int topSize;
+
+    public AccessSketch(int topK, int depth, int width, Duration window) {
+        this(topK, depth, width, window, System::nanoTime);
+    }
+
+    public AccessSketch(int topK, int depth, int width, Duration window, LongSupplier clock) {
+        if (depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("depth must be between 1 and " + SEEDS.length);
+        }
+        if (Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("width must be a power of two");
+        }
+        this.depth = depth;
+        this.widthMask = width - 1;
+        this.windowNanos = window.toNanos();
+        this.clock = clock;
+        this.current = new AtomicLongArray(depth * width);
+        this.previous = new AtomicLongArray(depth * width);
+        this.windowStart = clock.getAsLong();
+        this.topFirst = new Object[topK];
+        this.topSecond = new Object[topK];
+        this.topCount = new long[topK];
+    }
+
+    public void record(Object key) {
+        record(key, null);
+    }
+
+    public void record(Object first, Object second) {
+        rotateIfNeeded();
+
+        int hash = hash(first, second);
+        AtomicLongArray counters = current;
+        for (int row = 0; row < depth; row++) {
+            counters.incrementAndGet(index(row, hash));
+        }
+        currentTotal.incrementAndGet();
+
+        if (topLock.tryLock()) {
+            try {
+                offer(first, second, estimate(hash));
+            } finally {
+                topLock.unlock();
+            }
+        }
+    }
+
+    public long estimate(Object first, Object second) {
+        return estimate(hash(first, second));
+    }
+
+    public long total() {
+        return currentTotal.get() + previousTotal;
+    }
+
+    public boolean isHot(Object first, Object second) {
+        topLock.lock();
+        try {
+            return indexOf(first, second) >= 0;
+        } finally {
+            topLock.unlock();
+        }
+    }
+
+    public List<HotKey> topK() {
+        rotateIfNeeded();
+
+        List<HotKey> hotKeys = new ArrayList<>(topSize);
+        topLock.lock();
+        try {
+            for (int i = 0; i < topSize; i++) {
+                hotKeys.add(new HotKey(format(topFirst[i], topSecond[i]), topCount[i]));
+            }
+        } finally {
+            topLock.unlock();
+        }
+        hotKeys.sort(Comparator.comparingLong(HotKey::count).reversed());
+        return hotKeys;
+    }
+
+    public long topKTotal() {
+        topLock.lock();
+        try {
+            long sum = 0;
+            for (int i = 0; i < topSize; i++) {
+                sum += topCount[i];
+            }
+            return sum;
+        } finally {
+            topLock.unlock();
+        }
+    }
+
+    private void offer(Object first, Object second, long count) {
+        int existing = indexOf(first, second);
+        if (existing >= 0) {
+            topCount[existing] = count;
+            return;
+        }
+        if (topSize < topCount.length) {
+            put(topSize++, first, second, count);
+            return;
+        }
+        int min = 0;
+        for (int i = 1; i < topSize; i++) {
+            if (topCount[i] < topCount[min]) {
+                min = i;
+            }
+        }
+        if (count > topCount[min]) {
+            put(min, first, second, count);
+        }
+    }
+
+    private void put(int slot, Object first, Object second, long count) {
+        topFirst[slot] = first;
+        topSecond[slot] = second;
+        topCount[slot] = count;
+    }
+
+    private int indexOf(Object first, Object second) {
+        for (int i = 0; i < topSize; i++) {
+            if (Objects.equals(topFirst[i], first) && Objects.equals(topSecond[i], second)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private long estimate(int hash) {
+        AtomicLongArray counters = current;
+        AtomicLongArray older = previous;
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = index(row, hash);
+            min = Math.min(min, counters.get(index) + older.get(index));
+        }
+        return min;
+    }
+
+    private void rotateIfNeeded() {
+        long now = clock.getAsLong();
+        if (now - windowStart < windowNanos || !topLock.tryLock()) {
+            return;
+        }
+        try {
+            if (now - windowStart < windowNanos) {
+                return;
+            }
+            // Two windows without traffic: nothing from the previous generation is in range anymore.
+            boolean idle = now - windowStart >= 2 * windowNanos;
+
+            AtomicLongArray recycled = previous;
+            for (int i = 0; i < recycled.length(); i++) {
+                recycled.set(i, 0);
+            }
+            if (idle) {
+                AtomicLongArray stale = current;
+                for (int i = 0; i < stale.length(); i++) {
+                    stale.set(i, 0);
+                }
+            }
+            previous = current;
+            previousTotal = idle ? 0 : currentTotal.get();
+            current = recycled;
+            currentTotal.set(0);
+            windowStart = now;
+
+            int kept = 0;
+            for (int i = 0; i < topSize; i++) {
+                long count = estimate(hash(topFirst[i], topSecond[i]));
+                if (count > 0) {
+                    put(kept++, topFirst[i], topSecond[i], count);
+                }
+            }
+            for (int i = kept; i < topSize; i++) {
+                put(i, null, null, 0);
+            }
+            topSize = kept;
+        } finally {
+            topLock.unlock();
+        }
+    }
+
+    private int index(int row, int hash) {
+        long mixed = (hash ^ SEEDS[row]) * SEEDS[(row + 1) % SEEDS.length];
+        return row * (widthMask + 1) + ((int) (mixed ^ (mixed >>> 32)) & widthMask);
+    }
+
+    private static int hash(Object first, Object second) {
+        return 31 * Objects.hashCode(first) + Objects.hashCode(second);
+    }
+
+    private static String format(Object first, Object second) {
+        return second == null ? String.valueOf(first) : first + "/" + second;
+    }
+}
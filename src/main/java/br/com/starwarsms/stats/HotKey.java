@@ -0,0 +1,4 @@
+package br.com.starwarsms.stats;
+
+public record HotKey(String key, long count) {
+}
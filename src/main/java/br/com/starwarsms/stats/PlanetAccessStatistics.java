@@ -0,0 +1,78 @@
+package br.com.starwarsms.stats;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class PlanetAccessStatistics {
+
+    private static final String ANY = "*";
+
+    public enum Dimension {
+        ID, NAME, FILTER
+    }
+
+    private final Map<Dimension, AccessSketch> sketches = new EnumMap<>(Dimension.class);
+
+    public PlanetAccessStatistics(
+            MeterRegistry meterRegistry,
+            @Value("${starwars.stats.top-k:16}") int topK,
+            @Value("${starwars.stats.depth:4}") int depth,
+            @Value("${starwars.stats.width:1024}") int width,
+            @Value("${starwars.stats.window:PT1M}") Duration window) {
+        for (Dimension dimension : Dimension.values()) {
+            AccessSketch sketch = new AccessSketch(topK, depth, width, window);
+            sketches.put(dimension, sketch);
+
+            String tag = dimension.name().toLowerCase();
+            Gauge.builder("planets.access.requests", sketch, AccessSketch::total)
+                    .description("Planet lookups seen in the current sliding window")
+                    .tag("dimension", tag)
+                    .register(meterRegistry);
+            Gauge.builder("planets.access.hot.share", sketch, PlanetAccessStatistics::hotShare)
+                    .description("Share of planet lookups that hit one of the top-k keys")
+                    .tag("dimension", tag)
+                    .register(meterRegistry);
+        }
+    }
+
+    public void recordId(Long id) {
+        sketches.get(Dimension.ID).record(id);
+    }
+
+    public void recordName(String name) {
+        sketches.get(Dimension.NAME).record(name);
+    }
+
+    public void recordFilter(String climate, String terrain) {
+        sketches.get(Dimension.FILTER).record(climate == null ? ANY : climate, terrain == null ? ANY : terrain);
+    }
+
+    public boolean isHotId(Long id) {
+        return sketches.get(Dimension.ID).isHot(id, null);
+    }
+
+    public boolean isHotName(String name) {
+        return sketches.get(Dimension.NAME).isHot(name, null);
+    }
+
+    public long requestsInWindow() {
+        return sketches.values().stream().mapToLong(AccessSketch::total).sum();
+    }
+
+    public List<HotKey> hotKeys(Dimension dimension) {
+        return sketches.get(dimension).topK();
+    }
+
+    private static double hotShare(AccessSketch sketch) {
+        long total = sketch.total();
+        return total == 0 ? 0 : Math.min(1.0, (double) sketch.topKTotal() / total);
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.starwarsms.web;
+
+import br.com.starwarsms.enrichment.Expansion;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+// Binds expand=climateCategory,terrainTags; an unknown name fails the conversion and the request gets a 400.
+@Component
+public class ExpansionConverter implements Converter<String, Expansion> {
+
+    @Override
+    public Expansion convert(String source) {
+        return Expansion.fromParameter(source);
+    }
+}
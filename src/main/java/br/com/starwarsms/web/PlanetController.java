@@ -2,51 +2,112 @@ package br.com.starwarsms.web;
 
 import br.com.starwarsms.domain.Planet;
 import br.com.starwarsms.domain.PlanetService;
+import br.com.starwarsms.enrichment.Expansion;
+import br.com.starwarsms.enrichment.PlanetEnrichment;
+import br.com.starwarsms.enrichment.PlanetEnrichmentPipeline;
 import jakarta.validation.Valid;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/planets")
 public class PlanetController {
 
     private final PlanetService planetService;
+    private final PlanetEnrichmentPipeline enrichmentPipeline;
 
-    public PlanetController(PlanetService planetService) {
+    public PlanetController(PlanetService planetService, PlanetEnrichmentPipeline enrichmentPipeline) {
         this.planetService = planetService;
+        this.enrichmentPipeline = enrichmentPipeline;
     }
 
     @PostMapping
-    public ResponseEntity<Planet> createPlanet(@RequestBody @Valid Planet planet) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(planetService.createPlanet(planet));
+    public ResponseEntity<PlanetResponse> createPlanet(@RequestBody @Valid Planet planet) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(PlanetResponse.from(planetService.createPlanet(planet)));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<PlanetResponse>> createPlanets(@RequestBody @Valid List<Planet> planets) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(PlanetResponse.from(planetService.createPlanets(planets)));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Planet> getPlanetById(@PathVariable Long id) {
-        return planetService.getPlanetById(id).map(ResponseEntity::ok)
+    public ResponseEntity<PlanetResponse> getPlanetById(@PathVariable Long id, WebRequest request) {
+        return planetService.getPlanetById(id).map(planet -> withETag(planet, request))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping("/name/{name}")
-    public ResponseEntity<Planet> getPlanetByName(@PathVariable String name) {
-        return planetService.getPlanetByName(name).map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    public ResponseEntity<PlanetResponse> getPlanetByName(@PathVariable String name, WebRequest request) {
+        return planetService.getPlanetByName(name).map(planet -> withETag(planet, request)).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping
-    public ResponseEntity<List<Planet>> getPlanetsByFilter(
+    public ResponseEntity<List<PlanetResponse>> getPlanetsByFilter(
             @RequestParam(required = false) String climate,
-            @RequestParam(required = false) String terrain) {
-        return ResponseEntity.ok(planetService.getPlanets(climate, terrain));
+            @RequestParam(required = false) String terrain,
+            @RequestParam(required = false) Set<Expansion> expand) {
+        List<Planet> planets = planetService.getPlanets(climate, terrain);
+        if (expand == null || expand.isEmpty()) {
+            return ResponseEntity.ok(PlanetResponse.from(planets));
+        }
+
+        List<PlanetEnrichment> enrichments = enrichmentPipeline.enrich(planets, expand);
+        List<PlanetResponse> responses = new ArrayList<>(planets.size());
+        for (int i = 0; i < planets.size(); i++) {
+            responses.add(PlanetResponse.from(planets.get(i), enrichments.get(i)));
+        }
+        return ResponseEntity.ok(responses);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<PlanetResponse> replacePlanet(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody @Valid Planet planet) {
+        return update(id, ifMatch, planet.getVersion(), planet)
+                .map(version -> ResponseEntity.ok().eTag(eTag(version))
+                        .body(PlanetResponse.from(new Planet(id, planet.getName(), planet.getClimate(), planet.getTerrain(), version))))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchPlanet(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody Planet changes) {
+        boolean blankField = Stream.of(changes.getName(), changes.getClimate(), changes.getTerrain())
+                .anyMatch(value -> value != null && StringUtils.isBlank(value));
+        if (blankField) {
+            return ResponseEntity.unprocessableEntity().build();
+        }
+
+        return update(id, ifMatch, changes.getVersion(), changes)
+                .map(version -> ResponseEntity.noContent().eTag(eTag(version)).<Void>build())
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
@@ -54,4 +115,58 @@ public class PlanetController {
         planetService.deletePlanet(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static ResponseEntity<PlanetResponse> withETag(Planet planet, WebRequest request) {
+        if (planet.getVersion() == null) {
+            return ResponseEntity.ok(PlanetResponse.from(planet));
+        }
+        String eTag = eTag(planet.getVersion());
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(PlanetResponse.from(planet));
+    }
+
+    private static String eTag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    private Optional<Long> update(Long id, String ifMatch, Long bodyVersion, Planet changes) {
+        if (ifMatch == null) {
+            return planetService.updatePlanet(id, bodyVersion, changes);
+        }
+        if ("*".equals(ifMatch.trim())) {
+            return planetService.updatePlanet(id, null, changes);
+        }
+        Set<Long> versions = parseVersions(ifMatch);
+        return versions.size() == 1
+                ? planetService.updatePlanet(id, versions.iterator().next(), changes)
+                : planetService.updatePlanetIfVersionIn(id, versions, changes);
+    }
+
+    // The precondition passes when any listed entity-tag matches. Weak tags never match If-Match, and neither does
+    // a well-formed tag that is not a planet version; if nothing is left the request fails with 412.
+    private static Set<Long> parseVersions(String ifMatch) {
+        Set<Long> versions = new LinkedHashSet<>();
+        for (String entry : ifMatch.split(",")) {
+            String tag = entry.trim();
+            if (tag.isEmpty()) {
+                continue;
+            }
+            boolean weak = tag.startsWith("W/");
+            String quoted = weak ? tag.substring(2) : tag;
+            if (quoted.length() < 2 || !quoted.startsWith("\"") || !quoted.endsWith("\"")
+                    || quoted.substring(1, quoted.length() - 1).contains("\"")) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed If-Match header: " + ifMatch);
+            }
+            String value = quoted.substring(1, quoted.length() - 1);
+            if (!weak && StringUtils.isNumeric(value) && value.length() < 19) {
+                versions.add(Long.valueOf(value));
+            }
+        }
+        if (versions.isEmpty()) {
+            throw new OptimisticLockingFailureException("If-Match does not name a planet version: " + ifMatch);
+        }
+        return versions;
+    }
 }
@@ -0,0 +1,32 @@
+package br.com.starwarsms.web;
+
+import br.com.starwarsms.domain.Planet;
+import br.com.starwarsms.enrichment.PlanetEnrichment;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+// Copied out of the entity while the repository call is still in scope; nothing here can trigger lazy loading
+// once the persistence context is gone.
+public record PlanetResponse(
+        Long id,
+        String name,
+        String climate,
+        String terrain,
+        Long version,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String climateCategory,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<String> terrainTags) {
+
+    public static PlanetResponse from(Planet planet) {
+        return from(planet, PlanetEnrichment.NONE);
+    }
+
+    public static PlanetResponse from(Planet planet, PlanetEnrichment enrichment) {
+        return new PlanetResponse(planet.getId(), planet.getName(), planet.getClimate(), planet.getTerrain(),
+                planet.getVersion(), enrichment.climateCategory(), enrichment.terrainTags());
+    }
+
+    public static List<PlanetResponse> from(List<Planet> planets) {
+        return planets.stream().map(PlanetResponse::from).toList();
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.starwarsms.web;
+
+import br.com.starwarsms.stats.HotKey;
+import br.com.starwarsms.stats.PlanetAccessStatistics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/planets/stats")
+public class PlanetStatsController {
+
+    private final PlanetAccessStatistics accessStatistics;
+
+    public PlanetStatsController(PlanetAccessStatistics accessStatistics) {
+        this.accessStatistics = accessStatistics;
+    }
+
+    @GetMapping("/hot")
+    public ResponseEntity<Map<String, List<HotKey>>> getHotKeys() {
+        Map<String, List<HotKey>> hotKeys = new LinkedHashMap<>();
+        for (PlanetAccessStatistics.Dimension dimension : PlanetAccessStatistics.Dimension.values()) {
+            hotKeys.put(dimension.name().toLowerCase(), accessStatistics.hotKeys(dimension));
+        }
+        return ResponseEntity.ok(hotKeys);
+    }
+}
@@ -0,0 +1,80 @@
+package br.com.starwarsms.web;
+
+import br.com.starwarsms.domain.Planet;
+import br.com.starwarsms.domain.ReactivePlanetService;
+import br.com.starwarsms.enrichment.Expansion;
+import br.com.starwarsms.enrichment.PlanetEnrichment;
+import br.com.starwarsms.enrichment.PlanetEnrichmentPipeline;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+import java.util.function.Function;
+
+@RestController
+@ConditionalOnProperty(prefix = "starwars.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
+@RequestMapping("/reactive/planets")
+public class ReactivePlanetController {
+
+    private final ReactivePlanetService planetService;
+
+    private final PlanetEnrichmentPipeline enrichmentPipeline;
+
+    public ReactivePlanetController(ReactivePlanetService planetService, PlanetEnrichmentPipeline enrichmentPipeline) {
+        this.planetService = planetService;
+        this.enrichmentPipeline = enrichmentPipeline;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<PlanetResponse>> createPlanet(@RequestBody @Valid Planet planet) {
+        return planetService.createPlanet(planet)
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(PlanetResponse.from(created)));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<PlanetResponse>> getPlanetById(@PathVariable Long id) {
+        return planetService.getPlanetById(id).map(PlanetResponse::from).map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/name/{name}")
+    public Mono<ResponseEntity<PlanetResponse>> getPlanetByName(@PathVariable String name) {
+        return planetService.getPlanetByName(name).map(PlanetResponse::from).map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // JSON clients get the same array as /planets; NDJSON clients get rows streamed as the database emits them,
+    // one demand at a time, so a slow reader holds back the query instead of buffering the whole result. Expansions
+    // are applied to each row as it passes through.
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<PlanetResponse> getPlanetsByFilter(
+            @RequestParam(required = false) String climate,
+            @RequestParam(required = false) String terrain,
+            @RequestParam(required = false) Set<Expansion> expand) {
+        Flux<Planet> planets = planetService.getPlanets(climate, terrain);
+        if (expand == null || expand.isEmpty()) {
+            return planets.map(PlanetResponse::from);
+        }
+
+        Function<Planet, PlanetEnrichment> enricher = enrichmentPipeline.enricher(expand);
+        return planets.map(planet -> PlanetResponse.from(planet, enricher.apply(planet)));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deletePlanetById(@PathVariable Long id) {
+        return planetService.deletePlanet(id).then(Mono.just(ResponseEntity.noContent().<Void>build()));
+    }
+}
@@ -0,0 +1,52 @@
+package br.com.starwarsms;
+
+import br.com.starwarsms.domain.Planet;
+import br.com.starwarsms.domain.PlanetService;
+import br.com.starwarsms.domain.ReactivePlanetService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Writes through /reactive/planets must invalidate what /planets cached.
+@ActiveProfiles("h2")
+@SpringBootTest(properties = {
+        "starwars.cache.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:starwars-cache;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.url=r2dbc:h2:mem:///starwars-cache?options=DB_CLOSE_DELAY=-1"
+})
+public class PlanetCacheAcrossStacksTest {
+
+    @Autowired
+    private PlanetService planetService;
+
+    @Autowired
+    private ReactivePlanetService reactivePlanetService;
+
+    @Test
+    public void reactiveDelete_EvictsPlanetCachedByServletLookups() {
+        var planet = planetService.createPlanet(new Planet(null, "Kamino", "temperate", "ocean"));
+        assertTrue(planetService.getPlanetById(planet.getId()).isPresent());
+        assertTrue(planetService.getPlanetByName("Kamino").isPresent());
+
+        reactivePlanetService.deletePlanet(planet.getId()).block();
+
+        assertFalse(planetService.getPlanetById(planet.getId()).isPresent());
+        assertFalse(planetService.getPlanetByName("Kamino").isPresent());
+    }
+
+    @Test
+    public void reactiveCreate_ReclaimingACachedName_IsSeenByServletLookups() {
+        var planet = planetService.createPlanet(new Planet(null, "Utapau", "arid", "sinkholes"));
+        assertTrue(planetService.getPlanetByName("Utapau").isPresent());
+        reactivePlanetService.deletePlanet(planet.getId()).block();
+
+        var recreated = reactivePlanetService.createPlanet(new Planet(null, "Utapau", "temperate", "sinkholes")).block();
+
+        assertEquals(recreated.getId(), planetService.getPlanetByName("Utapau").orElseThrow().getId());
+    }
+}
@@ -8,18 +8,39 @@ import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.jdbc.Sql;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
 
 import static br.com.starwarsms.common.PlanetConstants.PLANET_1;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
+@Testcontainers
 @ActiveProfiles("it")
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @Sql(scripts = {"/import_planets.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
 @Sql(scripts = {"/remove_planets.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
 public class PlanetIT {
 
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0").withDatabaseName("starwars-db");
+
+    // JDBC and R2DBC both point at the container, so the reactive endpoints are tested against the same store.
+    @DynamicPropertySource
+    static void databaseProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+        registry.add("spring.r2dbc.url", () -> "r2dbc:mysql://" + MYSQL.getHost() + ":"
+                + MYSQL.getMappedPort(MySQLContainer.MYSQL_PORT) + "/" + MYSQL.getDatabaseName());
+        registry.add("spring.r2dbc.username", MYSQL::getUsername);
+        registry.add("spring.r2dbc.password", MYSQL::getPassword);
+    }
+
     @Autowired
     private TestRestTemplate restTemplate;
 
@@ -133,5 +154,33 @@ public class PlanetIT {
         assertEquals(sut.getStatusCode().value(), HttpStatus.NO_CONTENT.value());
     }
 
+    @Test
+    public void reactiveCreatePlanet_isVisibleThroughServletApi() {
+        var created = restTemplate.postForEntity("/reactive/planets", PLANET_1, Planet.class);
+
+        assertEquals(HttpStatus.CREATED.value(), created.getStatusCode().value());
+        assertNotNull(created.getBody());
+        var sut = restTemplate.getForEntity("/planets/{id}", Planet.class, created.getBody().getId());
+
+        assertEquals(HttpStatus.OK.value(), sut.getStatusCode().value());
+        assertEquals(PLANET_1.getName(), sut.getBody().getName());
+    }
+
+    @Test
+    public void reactiveListPlanets_ByClimateAndByTerrain_returnsPlanets() {
+        var sut = restTemplate.getForEntity("/reactive/planets?climate=frozen&terrain=tundra", Planet[].class);
+
+        assertEquals(HttpStatus.OK.value(), sut.getStatusCode().value());
+        assertNotNull(sut.getBody());
+        assertEquals(2, sut.getBody().length);
+    }
+
+    @Test
+    public void reactiveGetPlanetByName_returnsPlanet() {
+        var sut = restTemplate.getForEntity("/reactive/planets/name/{name}", Planet.class, "Jedha");
+
+        assertEquals(HttpStatus.OK.value(), sut.getStatusCode().value());
+        assertEquals(10L, sut.getBody().getId());
+    }
 
 }
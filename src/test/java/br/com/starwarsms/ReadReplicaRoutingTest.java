@@ -0,0 +1,93 @@
+package br.com.starwarsms;
+
+import br.com.starwarsms.cache.PlanetCache;
+import br.com.starwarsms.domain.Planet;
+import br.com.starwarsms.domain.PlanetRepository;
+import br.com.starwarsms.domain.PlanetService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// The replica is a second H2 database holding a row the primary does not have, so every read shows which side
+// answered it.
+@ActiveProfiles("h2")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:starwars-primary;DB_CLOSE_DELAY=-1",
+        "starwars.datasource.replica.url=jdbc:h2:mem:starwars-replica;DB_CLOSE_DELAY=-1",
+        "starwars.datasource.replica.username=sa",
+        "starwars.datasource.replica.password=",
+        "starwars.cache.enabled=true"})
+public class ReadReplicaRoutingTest {
+
+    @Autowired
+    private PlanetService planetService;
+
+    @Autowired
+    private PlanetRepository planetRepository;
+
+    @Autowired
+    private PlanetCache planetCache;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @BeforeEach
+    public void setUp() {
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("DROP TABLE IF EXISTS planets");
+        replica.execute("CREATE TABLE planets (id BIGINT PRIMARY KEY, name VARCHAR(255), climate VARCHAR(255),"
+                + " terrain VARCHAR(255), version BIGINT DEFAULT 0 NOT NULL, deleted BOOLEAN DEFAULT FALSE NOT NULL)");
+        replica.update("INSERT INTO planets (id, name, climate, terrain) VALUES (900, 'Replica', 'arid', 'desert')");
+        planetRepository.deleteAll();
+        planetCache.evict(900L);
+    }
+
+    @Test
+    public void readOnlyLookups_AreServedByTheReplica() {
+        assertEquals("Replica", planetService.getPlanetById(900L).orElseThrow().getName());
+        assertEquals(900L, planetService.getPlanetByName("Replica").orElseThrow().getId());
+        assertEquals(1, planetService.getPlanets("arid", null).size());
+    }
+
+    @Test
+    public void lookupAfterWrite_DoesNotCacheTheLaggingReplicaRow() {
+        new JdbcTemplate(primaryDataSource).update(
+                "INSERT INTO planets (id, name, climate, terrain, version, deleted) VALUES (900, 'Replica', 'arid', 'desert', 5, false)");
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+
+        assertEquals(6L, planetService.updatePlanet(900L, 5L, new Planet(null, null, "temperate", null)).orElseThrow());
+        assertEquals(0L, planetService.getPlanetById(900L).orElseThrow().getVersion());
+        assertFalse(planetCache.getById(900L).isPresent());
+
+        replica.update("UPDATE planets SET climate = 'temperate', version = 6 WHERE id = 900");
+        assertEquals(6L, planetService.getPlanetById(900L).orElseThrow().getVersion());
+        assertEquals(6L, planetCache.getById(900L).orElseThrow().getVersion());
+
+        planetService.deletePlanet(900L);
+        assertEquals("temperate", planetService.getPlanetById(900L).orElseThrow().getClimate());
+        assertFalse(planetCache.getById(900L).isPresent());
+    }
+
+    @Test
+    public void writes_GoToThePrimary() {
+        Planet created = planetService.createPlanet(new Planet(null, "Primary", "frozen", "tundra"));
+
+        assertEquals(1, planetRepository.count());
+        assertFalse(planetService.getPlanetById(created.getId()).isPresent());
+        assertEquals(1L, planetService.updatePlanet(created.getId(), null, new Planet(null, null, "temperate", null))
+                .orElseThrow());
+    }
+}
@@ -0,0 +1,123 @@
+package br.com.starwarsms;
+
+import br.com.starwarsms.domain.Planet;
+import br.com.starwarsms.domain.PlanetService;
+import br.com.starwarsms.domain.ReactivePlanetRepository;
+import br.com.starwarsms.sharding.ShardRouter;
+import br.com.starwarsms.sharding.ShardRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Boots the "sharded" profile: two in-memory H2 shards behind the planet repository.
+@ActiveProfiles("sharded")
+@SpringBootTest(properties = "starwars.planets.compaction.enabled=false")
+@AutoConfigureMockMvc
+public class ShardedPlanetTest {
+
+    private static final List<String> NAMES = List.of("Hoth", "Dagobah", "Bespin", "Jedha", "Tatooine", "Alderaan");
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlanetService planetService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardRoutingDataSource shardRoutingDataSource;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    public void tearDown() {
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            shard(shard).update("DELETE FROM planets");
+        }
+    }
+
+    @Test
+    public void shardPools_PublishHikariMetrics() {
+        for (int shard = 0; shard < 2; shard++) {
+            var max = meterRegistry.find("hikaricp.connections.max").tag("pool", "planets-shard-" + shard).gauge();
+            assertNotNull(max, "no pool metrics for shard " + shard);
+            assertEquals(10, max.value());
+        }
+    }
+
+    @Test
+    public void createPlanets_StoresEachPlanetOnItsNameShardWithAnIdRoutingBackToIt() {
+        var created = planetService.createPlanets(NAMES.stream().map(name -> new Planet(null, name, "arid", "desert")).toList());
+
+        for (Planet planet : created) {
+            int shard = shardRouter.shardForName(planet.getName());
+            assertEquals(shard, shardRouter.shardForId(planet.getId()), planet.getName());
+            assertEquals(planet.getName(),
+                    shard(shard).queryForObject("SELECT name FROM planets WHERE id = ?", String.class, planet.getId()));
+            assertEquals(0, shard(1 - shard).queryForObject(
+                    "SELECT COUNT(*) FROM planets WHERE name = ?", Integer.class, planet.getName()));
+        }
+    }
+
+    @Test
+    public void lookups_RouteByIdByNameAndScatterAcrossShards() {
+        var created = planetService.createPlanets(NAMES.stream().map(name -> new Planet(null, name, "arid", "desert")).toList());
+
+        for (Planet planet : created) {
+            assertEquals(planet.getName(), planetService.getPlanetById(planet.getId()).orElseThrow().getName());
+            assertEquals(planet.getId(), planetService.getPlanetByName(planet.getName()).orElseThrow().getId());
+        }
+        assertEquals(NAMES.size(), planetService.getPlanets("arid", null).size());
+    }
+
+    @Test
+    public void renamePlanet_ToANameHeldOnAnotherShard_IsRejected() {
+        var hoth = planetService.createPlanet(new Planet(null, "Hoth", "frozen", "tundra"));
+        var other = NAMES.stream()
+                .filter(name -> shardRouter.shardForName(name) != shardRouter.shardForName("Hoth"))
+                .findFirst().orElseThrow();
+        var planet = planetService.createPlanet(new Planet(null, other, "arid", "desert"));
+        assertNotEquals(shardRouter.shardForId(hoth.getId()), shardRouter.shardForId(planet.getId()));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> planetService.updatePlanet(planet.getId(), null, new Planet(null, "Hoth", null, null)));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> planetService.createPlanet(new Planet(null, "Hoth", "arid", "desert")));
+        assertEquals(other, planetService.getPlanetById(planet.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    public void reactiveEndpoints_AreDisabledWithSharding() throws Exception {
+        assertTrue(context.getBeansOfType(ReactivePlanetRepository.class).isEmpty());
+
+        mockMvc.perform(get("/reactive/planets")).andExpect(status().isNotFound());
+    }
+
+    private JdbcTemplate shard(int shard) {
+        return new JdbcTemplate(shardRoutingDataSource.shard(shard));
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.starwarsms;
+
+import br.com.starwarsms.domain.Planet;
+import br.com.starwarsms.domain.PlanetRepository;
+import br.com.starwarsms.domain.ReactivePlanetRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ActiveProfiles("h2")
+@SpringBootTest
+public class StarwarsMsApplicationTest {
+
+    @Autowired
+    private PlanetRepository planetRepository;
+
+    @Autowired
+    private ReactivePlanetRepository reactivePlanetRepository;
+
+    @Test
+    public void contextLoads_WithJdbcAndR2dbcSharingTheStore() {
+        Planet saved = planetRepository.save(new Planet(null, "Bespin", "temperate", "gas giant"));
+
+        StepVerifier.create(reactivePlanetRepository.findById(saved.getId()))
+                .assertNext(planet -> assertEquals("Bespin", planet.getName()))
+                .verifyComplete();
+    }
+}
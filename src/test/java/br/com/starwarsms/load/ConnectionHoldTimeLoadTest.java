@@ -0,0 +1,108 @@
+package br.com.starwarsms.load;
+
+import br.com.starwarsms.StarwarsMsApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Boots the application once with open-in-view and once without, drives the same reads through both and compares
+// how long each request keeps a pooled connection checked out (hikaricp.connections.usage).
+public class ConnectionHoldTimeLoadTest {
+
+    private static final Path REPORT_DIR = Path.of("target", "load");
+    private static final int PLANETS = 500;
+    private static final int WARMUP_REQUESTS = 200;
+    private static final int MEASURED_REQUESTS = 1_000;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    public void disablingOpenInView_ShortensConnectionHoldTime() throws Exception {
+        HoldTime openInView = measure(true);
+        HoldTime readOnlyTransactions = measure(false);
+
+        String report = openInView.line("open-in-view") + readOnlyTransactions.line("read-only tx")
+                + String.format("reduction    %.1f%%%n", 100 * (1 - readOnlyTransactions.meanMicros() / openInView.meanMicros()));
+        Files.createDirectories(REPORT_DIR);
+        Files.writeString(REPORT_DIR.resolve("connection-hold-time.txt"), report);
+        System.out.print(report);
+
+        assertTrue(readOnlyTransactions.meanMicros() < openInView.meanMicros(),
+                "Connections were not released earlier without open-in-view:\n" + report);
+    }
+
+    private HoldTime measure(boolean openInView) throws Exception {
+        String database = "starwars-hold-" + openInView;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(StarwarsMsApplication.class)
+                .profiles("load")
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.open-in-view=" + openInView,
+                        "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                        "spring.r2dbc.url=r2dbc:h2:mem:///" + database + "?options=DB_CLOSE_DELAY=-1")
+                .run()) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/planets";
+            seed(baseUrl);
+
+            for (int i = 0; i < WARMUP_REQUESTS; i++) {
+                get(baseUrl + "/" + (1 + i % PLANETS));
+            }
+
+            Timer usage = context.getBean(MeterRegistry.class).get("hikaricp.connections.usage").timer();
+            long countBefore = usage.count();
+            double totalBefore = usage.totalTime(TimeUnit.MICROSECONDS);
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_REQUESTS; i++) {
+                // Mostly point reads, with a full listing every tenth request so serialization has real work to do.
+                get(i % 10 == 0 ? baseUrl : baseUrl + "/" + (1 + i % PLANETS));
+            }
+            long elapsed = System.nanoTime() - start;
+
+            long borrows = usage.count() - countBefore;
+            return new HoldTime(borrows, (usage.totalTime(TimeUnit.MICROSECONDS) - totalBefore) / borrows,
+                    usage.max(TimeUnit.MICROSECONDS), TimeUnit.NANOSECONDS.toMicros(elapsed) / (double) MEASURED_REQUESTS);
+        }
+    }
+
+    private void seed(String baseUrl) throws Exception {
+        StringJoiner planets = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < PLANETS; i++) {
+            planets.add("{\"name\":\"hold-" + i + "\",\"climate\":\"arid\",\"terrain\":\"desert, mountains\"}");
+        }
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/batch"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(planets.toString()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, response.statusCode(), response.body());
+    }
+
+    private void get(String url) throws Exception {
+        HttpResponse<Void> response = httpClient.send(HttpRequest.newBuilder(URI.create(url))
+                        .header("Accept", "application/json").GET().build(),
+                HttpResponse.BodyHandlers.discarding());
+        assertEquals(200, response.statusCode(), url);
+    }
+
+    private record HoldTime(long borrows, double meanMicros, double maxMicros, double requestMicros) {
+
+        String line(String mode) {
+            return String.format("%-12s borrows=%5d hold mean=%8.1f us max=%8.1f us request mean=%8.1f us%n",
+                    mode, borrows, meanMicros, maxMicros, requestMicros);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.starwarsms.load;
+
+import java.util.Arrays;
+
+public class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int size;
+    private long errors;
+
+    public synchronized void record(long nanos, boolean error) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+        if (error) {
+            errors++;
+        }
+    }
+
+    public synchronized void recordError() {
+        errors++;
+    }
+
+    public synchronized Snapshot snapshot() {
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        return new Snapshot(sorted, errors);
+    }
+
+    public record Snapshot(long[] sorted, long errors) {
+
+        public long count() {
+            return sorted.length;
+        }
+
+        public double percentileMillis(double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+        }
+    }
+}
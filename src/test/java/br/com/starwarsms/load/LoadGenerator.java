@@ -0,0 +1,199 @@
+package br.com.starwarsms.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-model generator: requests are issued on a Poisson schedule regardless of how fast earlier ones complete,
+// and latency is measured from the intended start, so a slow server cannot hide its queueing delay.
+public class LoadGenerator {
+
+    private static final String[] CLIMATES = {"arid", "temperate", "frozen", "murky", "tropical"};
+    private static final String[] TERRAINS = {"desert", "jungle", "tundra", "swamp", "ocean"};
+
+    private final LoadSettings settings;
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Random random;
+    private final List<Planet> knownPlanets = new ArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Semaphore inFlight;
+    private final Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+    private final Operation[] weightedOperations;
+
+    public LoadGenerator(LoadSettings settings, String baseUrl) {
+        this.settings = settings;
+        this.baseUrl = baseUrl + settings.basePath();
+        this.random = new Random(settings.seed());
+        this.inFlight = new Semaphore(settings.maxInFlight());
+        this.httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        List<Operation> operations = new ArrayList<>();
+        settings.mix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                operations.add(operation);
+            }
+        });
+        this.weightedOperations = operations.toArray(Operation[]::new);
+    }
+
+    public void seed() {
+        for (int i = 0; i < settings.seedPlanets(); i++) {
+            send(Operation.CREATE, System.nanoTime(), null).join();
+        }
+    }
+
+    public Map<Operation, LatencyRecorder> run(Duration duration, Set<Operation> disabled) {
+        recorders.clear();
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long intended = start;
+
+        while (intended < end) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Operation operation = weightedOperations[random.nextInt(weightedOperations.length)];
+            if (!disabled.contains(operation)) {
+                if (inFlight.tryAcquire()) {
+                    send(operation, intended, recorders.get(operation)).whenComplete((ignored, error) -> inFlight.release());
+                } else {
+                    recorders.get(operation).recordError();
+                }
+            }
+            intended += (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+        }
+
+        // Completed requests hand their permit back, so holding every permit means nothing is left in flight.
+        try {
+            if (!inFlight.tryAcquire(settings.maxInFlight(), 1, TimeUnit.MINUTES)) {
+                throw new IllegalStateException("Requests still in flight a minute after the run ended");
+            }
+            inFlight.release(settings.maxInFlight());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while draining in-flight requests", e);
+        }
+        return recorders;
+    }
+
+    private CompletableFuture<Void> send(Operation operation, long intendedStart, LatencyRecorder recorder) {
+        Planet target = operation == Operation.GET_BY_ID || operation == Operation.GET_BY_NAME || operation == Operation.DELETE
+                ? pickPlanet(operation == Operation.DELETE)
+                : null;
+        HttpRequest request = request(operation, target);
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    long latency = System.nanoTime() - intendedStart;
+                    boolean failed = error != null || !expected(operation, response.statusCode());
+                    if (!failed && operation == Operation.CREATE) {
+                        remember(response.body());
+                    }
+                    if (recorder != null) {
+                        recorder.record(latency, failed);
+                    }
+                    return null;
+                });
+    }
+
+    private HttpRequest request(Operation operation, Planet target) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json");
+        return switch (operation) {
+            case CREATE -> builder.uri(URI.create(baseUrl))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(newPlanetJson()))
+                    .build();
+            case GET_BY_ID -> builder.uri(URI.create(baseUrl + "/" + idOf(target))).GET().build();
+            case GET_BY_NAME -> builder.uri(URI.create(baseUrl + "/name/" + encode(target == null ? "unknown" : target.name())))
+                    .GET().build();
+            case FILTER -> builder.uri(URI.create(baseUrl + "?climate=" + CLIMATES[random.nextInt(CLIMATES.length)]))
+                    .GET().build();
+            case DELETE -> builder.uri(URI.create(baseUrl + "/" + idOf(target))).DELETE().build();
+        };
+    }
+
+    private static boolean expected(Operation operation, int status) {
+        return switch (operation) {
+            case CREATE -> status == 201;
+            case GET_BY_ID, GET_BY_NAME -> status == 200 || status == 404;
+            case FILTER -> status == 200;
+            case DELETE -> status == 204 || status == 404;
+        };
+    }
+
+    private String newPlanetJson() {
+        long next = sequence.incrementAndGet();
+        return "{\"name\":\"load-" + settings.seed() + "-" + System.nanoTime() + "-" + next + "\","
+                + "\"climate\":\"" + CLIMATES[(int) (next % CLIMATES.length)] + "\","
+                + "\"terrain\":\"" + TERRAINS[(int) (next % TERRAINS.length)] + "\"}";
+    }
+
+    private void remember(String body) {
+        try {
+            JsonNode node = objectMapper.readTree(body);
+            synchronized (knownPlanets) {
+                knownPlanets.add(new Planet(node.get("id").asLong(), node.get("name").asText()));
+            }
+        } catch (Exception e) {
+            // Counted as a success already; an unreadable body only means the planet is not reused.
+        }
+    }
+
+    private Planet pickPlanet(boolean remove) {
+        synchronized (knownPlanets) {
+            if (knownPlanets.isEmpty()) {
+                return null;
+            }
+            int index = random.nextInt(knownPlanets.size());
+            Planet planet = knownPlanets.get(index);
+            if (remove) {
+                knownPlanets.set(index, knownPlanets.getLast());
+                knownPlanets.removeLast();
+            }
+            return planet;
+        }
+    }
+
+    private static long idOf(Planet planet) {
+        return planet == null ? 0 : planet.id();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    private record Planet(long id, String name) {
+    }
+}
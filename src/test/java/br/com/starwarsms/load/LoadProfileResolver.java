@@ -0,0 +1,12 @@
+package br.com.starwarsms.load;
+
+import org.springframework.test.context.ActiveProfilesResolver;
+
+// "load" runs against in-memory H2; -Dload.profile=it reuses the MySQL Testcontainer setup of PlanetIT.
+public class LoadProfileResolver implements ActiveProfilesResolver {
+
+    @Override
+    public String[] resolve(Class<?> testClass) {
+        return new String[]{System.getProperty("load.profile", "load")};
+    }
+}
@@ -0,0 +1,119 @@
+package br.com.starwarsms.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+public record LoadReport(
+        LoadSettings settings,
+        Duration elapsed,
+        Map<Operation, LatencyRecorder.Snapshot> operations,
+        ServerMetricsSampler.Stats server) {
+
+    public static LoadReport of(LoadSettings settings, Duration elapsed, Map<Operation, LatencyRecorder> recorders,
+                                ServerMetricsSampler.Stats server) {
+        Map<Operation, LatencyRecorder.Snapshot> snapshots = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> snapshots.put(operation, recorder.snapshot()));
+        return new LoadReport(settings, elapsed, snapshots, server);
+    }
+
+    public long completed() {
+        return operations.values().stream().mapToLong(LatencyRecorder.Snapshot::count).sum();
+    }
+
+    public long errors() {
+        return operations.values().stream().mapToLong(LatencyRecorder.Snapshot::errors).sum();
+    }
+
+    public double throughput() {
+        return completed() / (elapsed.toNanos() / 1_000_000_000.0);
+    }
+
+    public double errorRate() {
+        long attempts = completed() + errors();
+        return attempts == 0 ? 0 : (double) errors() / attempts;
+    }
+
+    // Compares against the stored baseline and lists every metric that drifted past the tolerance.
+    public List<String> violations(Properties baseline) {
+        double tolerance = settings.tolerance();
+        List<String> violations = new ArrayList<>();
+
+        double minThroughput = Double.parseDouble(baseline.getProperty("throughput", "0")) * (1 - tolerance);
+        if (throughput() < minThroughput) {
+            violations.add(String.format(Locale.ROOT, "throughput %.1f req/s < %.1f", throughput(), minThroughput));
+        }
+
+        double maxErrorRate = Double.parseDouble(baseline.getProperty("error-rate", "0")) + 0.01;
+        if (errorRate() > maxErrorRate) {
+            violations.add(String.format(Locale.ROOT, "error rate %.4f > %.4f", errorRate(), maxErrorRate));
+        }
+
+        operations.forEach((operation, snapshot) -> {
+            String key = "latency.p99." + operation.name().toLowerCase(Locale.ROOT);
+            if (snapshot.count() == 0 || baseline.getProperty(key) == null) {
+                return;
+            }
+            double maxP99 = Double.parseDouble(baseline.getProperty(key)) * (1 + tolerance);
+            if (snapshot.percentileMillis(99) > maxP99) {
+                violations.add(String.format(Locale.ROOT, "%s p99 %.2f ms > %.2f ms", operation, snapshot.percentileMillis(99), maxP99));
+            }
+        });
+
+        // A short run may see no collection at all, so a few extra pauses never fail it on their own.
+        if (baseline.getProperty("gc.millis") != null) {
+            double baselineGc = Double.parseDouble(baseline.getProperty("gc.millis"));
+            double maxGc = Math.max(baselineGc * (1 + tolerance), baselineGc + 100);
+            if (server.gcMillis() > maxGc) {
+                violations.add(String.format(Locale.ROOT, "gc pauses %d ms > %.0f ms", server.gcMillis(), maxGc));
+            }
+        }
+        if (baseline.getProperty("heap.peak-mib") != null) {
+            double maxHeap = Double.parseDouble(baseline.getProperty("heap.peak-mib")) * (1 + tolerance);
+            if ((server.peakHeapBytes() >> 20) > maxHeap) {
+                violations.add(String.format(Locale.ROOT, "peak heap %d MiB > %.0f MiB", server.peakHeapBytes() >> 20, maxHeap));
+            }
+        }
+        return violations;
+    }
+
+    public Properties asBaseline() {
+        Properties baseline = new Properties();
+        baseline.setProperty("throughput", String.format(Locale.ROOT, "%.1f", throughput()));
+        baseline.setProperty("error-rate", String.format(Locale.ROOT, "%.4f", errorRate()));
+        operations.forEach((operation, snapshot) -> {
+            if (snapshot.count() > 0) {
+                baseline.setProperty("latency.p99." + operation.name().toLowerCase(Locale.ROOT),
+                        String.format(Locale.ROOT, "%.2f", snapshot.percentileMillis(99)));
+            }
+        });
+        baseline.setProperty("gc.count", Long.toString(server.gcCount()));
+        baseline.setProperty("gc.millis", Long.toString(server.gcMillis()));
+        baseline.setProperty("heap.peak-mib", Long.toString(server.peakHeapBytes() >> 20));
+        return baseline;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "base path %s, target %.1f req/s for %s%n",
+                settings.basePath(), settings.rate(), settings.duration()));
+        report.append(String.format(Locale.ROOT, "throughput %.1f req/s, %d completed, %d errors (%.2f%%)%n",
+                throughput(), completed(), errors(), errorRate() * 100));
+        report.append(String.format(Locale.ROOT, "%-12s %8s %9s %9s %9s %9s %7s%n",
+                "operation", "count", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors"));
+        operations.forEach((operation, snapshot) -> report.append(String.format(Locale.ROOT,
+                "%-12s %8d %9.2f %9.2f %9.2f %9.2f %7d%n", operation, snapshot.count(),
+                snapshot.percentileMillis(50), snapshot.percentileMillis(95), snapshot.percentileMillis(99),
+                snapshot.percentileMillis(100), snapshot.errors())));
+        report.append(String.format(Locale.ROOT,
+                "server gc: %d collections, %d ms; heap: start %d MiB, peak %d MiB, max %d MiB; threads: peak %d%n",
+                server.gcCount(), server.gcMillis(), server.startHeapBytes() >> 20, server.peakHeapBytes() >> 20,
+                server.maxHeapBytes() >> 20, server.peakThreads()));
+        return report.toString();
+    }
+}
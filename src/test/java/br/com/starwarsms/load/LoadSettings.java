@@ -0,0 +1,43 @@
+package br.com.starwarsms.load;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+public record LoadSettings(
+        double rate,
+        Duration duration,
+        Duration warmup,
+        Map<Operation, Integer> mix,
+        String basePath,
+        int seedPlanets,
+        int maxInFlight,
+        double tolerance,
+        long seed) {
+
+    public static LoadSettings fromSystemProperties() {
+        return new LoadSettings(
+                Double.parseDouble(System.getProperty("load.rate", "50")),
+                Duration.parse(System.getProperty("load.duration", "PT30S")),
+                Duration.parse(System.getProperty("load.warmup", "PT5S")),
+                parseMix(System.getProperty("load.mix", "create:10,get_by_id:40,get_by_name:20,filter:25,delete:5")),
+                System.getProperty("load.base-path", "/planets"),
+                Integer.parseInt(System.getProperty("load.seed-planets", "200")),
+                Integer.parseInt(System.getProperty("load.max-in-flight", "2000")),
+                Double.parseDouble(System.getProperty("load.tolerance", "0.5")),
+                Long.parseLong(System.getProperty("load.seed", "42")));
+    }
+
+    public LoadSettings withBasePath(String basePath) {
+        return new LoadSettings(rate, duration, warmup, mix, basePath, seedPlanets, maxInFlight, tolerance, seed);
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,5 @@
+package br.com.starwarsms.load;
+
+public enum Operation {
+    CREATE, GET_BY_ID, GET_BY_NAME, FILTER, DELETE
+}
@@ -0,0 +1,66 @@
+package br.com.starwarsms.load;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles(resolver = LoadProfileResolver.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class PlanetLoadTest {
+
+    private static final Path REPORT_DIR = Path.of("target", "load");
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    public void mixedTraffic_StaysWithinBaseline() throws IOException {
+        var settings = LoadSettings.fromSystemProperties();
+        // -Dload.target-url drives a server running in its own process; the embedded one stays idle.
+        var serverUrl = System.getProperty("load.target-url", "http://localhost:" + port);
+        var generator = new LoadGenerator(settings, serverUrl);
+
+        generator.seed();
+        // Warm-up traffic without deletes, so the seeded pool survives into the measured run.
+        generator.run(settings.warmup(), EnumSet.of(Operation.DELETE));
+
+        LoadReport report;
+        try (var server = new ServerMetricsSampler(serverUrl)) {
+            long start = System.nanoTime();
+            var recorders = generator.run(settings.duration(), EnumSet.noneOf(Operation.class));
+            report = LoadReport.of(settings, Duration.ofNanos(System.nanoTime() - start), recorders, server.stop());
+        }
+
+        Files.createDirectories(REPORT_DIR);
+        Files.writeString(REPORT_DIR.resolve("report.txt"), report.toString());
+        try (Writer writer = Files.newBufferedWriter(REPORT_DIR.resolve("baseline.properties"))) {
+            report.asBaseline().store(writer, "Measured baseline; copy to src/test/resources/load to adopt it");
+        }
+        System.out.print(report);
+
+        var violations = report.violations(baseline());
+        assertTrue(violations.isEmpty(), "Load run drifted past the baseline: " + violations);
+    }
+
+    private static Properties baseline() throws IOException {
+        Properties baseline = new Properties();
+        try (InputStream input = PlanetLoadTest.class.getResourceAsStream("/load/baseline.properties")) {
+            if (input != null) {
+                baseline.load(input);
+            }
+        }
+        return baseline;
+    }
+}
@@ -0,0 +1,101 @@
+package br.com.starwarsms.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Reads heap, GC and thread figures from the server's /actuator/metrics rather than from this JVM, so the numbers
+// describe the server even when -Dload.target-url points the generator at a separate process.
+public class ServerMetricsSampler implements AutoCloseable {
+
+    private static final String HEAP = "tag=area:heap";
+
+    private final String metricsUrl;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "load-server-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong peakHeap = new AtomicLong();
+    private final AtomicLong peakThreads = new AtomicLong();
+    private final long startGcCount;
+    private final long startGcMillis;
+    private final long startHeap;
+
+    public ServerMetricsSampler(String serverUrl) {
+        this.metricsUrl = serverUrl + "/actuator/metrics/";
+        startGcCount = (long) measurement("jvm.gc.pause", null, "COUNT");
+        startGcMillis = gcMillis();
+        startHeap = (long) measurement("jvm.memory.used", HEAP, "VALUE");
+        sampler.scheduleAtFixedRate(this::sample, 0, 250, TimeUnit.MILLISECONDS);
+    }
+
+    public Stats stop() {
+        sampler.shutdownNow();
+        sample();
+        return new Stats((long) measurement("jvm.gc.pause", null, "COUNT") - startGcCount, gcMillis() - startGcMillis,
+                startHeap, peakHeap.get(), (long) measurement("jvm.memory.max", HEAP, "VALUE"), peakThreads.get());
+    }
+
+    public long heapUsedBytes() {
+        return (long) measurement("jvm.memory.used", HEAP, "VALUE");
+    }
+
+    public long liveThreads() {
+        return (long) measurement("jvm.threads.live", null, "VALUE");
+    }
+
+    @Override
+    public void close() {
+        sampler.shutdownNow();
+    }
+
+    private void sample() {
+        peakHeap.accumulateAndGet(heapUsedBytes(), Math::max);
+        peakThreads.accumulateAndGet(liveThreads(), Math::max);
+    }
+
+    private long gcMillis() {
+        return (long) (measurement("jvm.gc.pause", null, "TOTAL_TIME") * 1000);
+    }
+
+    // A meter that does not exist yet, such as jvm.gc.pause before the first collection, reads as zero.
+    private double measurement(String metric, String query, String statistic) {
+        URI uri = URI.create(metricsUrl + metric + (query == null ? "" : "?" + query));
+        try {
+            HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(uri).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 404) {
+                return 0;
+            }
+            for (JsonNode measurement : objectMapper.readTree(response.body()).path("measurements")) {
+                if (statistic.equals(measurement.path("statistic").asText())) {
+                    return measurement.path("value").asDouble();
+                }
+            }
+            return 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + uri, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    public record Stats(long gcCount, long gcMillis, long startHeapBytes, long peakHeapBytes, long maxHeapBytes,
+                        long peakThreads) {
+    }
+}
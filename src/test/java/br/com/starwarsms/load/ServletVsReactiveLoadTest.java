@@ -0,0 +1,159 @@
+package br.com.starwarsms.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs each stack in its own JVM and drives the same open-model mix through /planets (JDBC on request threads) and
+// /reactive/planets (R2DBC), then holds a fixed number of connections busy and divides the server's retained heap
+// and live thread growth by that number to compare what one concurrent connection costs on each stack.
+public class ServletVsReactiveLoadTest {
+
+    private static final Path REPORT_DIR = Path.of("target", "load");
+    private static final int CONNECTIONS = Integer.parseInt(System.getProperty("load.connections", "200"));
+    private static final Duration HOLD = Duration.parse(System.getProperty("load.connection-hold", "PT10S"));
+    private static final List<String> SERVER_JVM_ARGUMENTS = List.of("-Xmx" + System.getProperty("load.server-heap", "512m"));
+
+    @Test
+    public void servletAndReactiveStacks_ServeTheSameMix() throws Exception {
+        var settings = LoadSettings.fromSystemProperties();
+        Result servlet = measure(settings.withBasePath("/planets"), "servlet");
+        Result reactive = measure(settings.withBasePath("/reactive/planets"), "reactive");
+
+        String report = "servlet (JDBC)\n" + servlet.load() + servlet.footprint()
+                + "\nreactive (R2DBC)\n" + reactive.load() + reactive.footprint() + "\n"
+                + String.format(Locale.ROOT, "%-10s %12s %12s %12s %14s %12s %12s%n",
+                        "stack", "req/s", "p99 get ms", "p99 filter", "peak heap MiB", "KiB/conn", "threads/conn")
+                + summary("servlet", servlet) + summary("reactive", reactive);
+        Files.createDirectories(REPORT_DIR);
+        Files.writeString(REPORT_DIR.resolve("servlet-vs-reactive.txt"), report);
+        System.out.print(report);
+
+        assertTrue(servlet.load().errorRate() < 0.01 && reactive.load().errorRate() < 0.01
+                        && servlet.footprint().errorRate() < 0.01 && reactive.footprint().errorRate() < 0.01,
+                "A stack failed requests under the same mix:\n" + report);
+    }
+
+    private static Result measure(LoadSettings settings, String stack) throws Exception {
+        try (var server = ForkedServer.start(stack, SERVER_JVM_ARGUMENTS)) {
+            var generator = new LoadGenerator(settings, server.url());
+            generator.seed();
+            generator.run(settings.warmup(), EnumSet.of(Operation.DELETE));
+
+            LoadReport load;
+            try (var sampler = new ServerMetricsSampler(server.url())) {
+                long start = System.nanoTime();
+                var recorders = generator.run(settings.duration(), EnumSet.noneOf(Operation.class));
+                load = LoadReport.of(settings, Duration.ofNanos(System.nanoTime() - start), recorders, sampler.stop());
+            }
+            return new Result(load, holdConnections(server, settings.basePath()));
+        }
+    }
+
+    // Every worker keeps one request in flight back to back, so the server holds CONNECTIONS busy connections while
+    // the heap is collected and read; the idle figures are taken the same way before the workers start.
+    private static Footprint holdConnections(ForkedServer server, String basePath) throws Exception {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server.url() + basePath + "?climate=arid"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        try (var sampler = new ServerMetricsSampler(server.url())) {
+            server.gc();
+            long idleHeap = sampler.heapUsedBytes();
+            long idleThreads = sampler.liveThreads();
+
+            var running = new AtomicBoolean(true);
+            var started = new CountDownLatch(CONNECTIONS);
+            var completed = new AtomicLong();
+            var failed = new AtomicLong();
+            long heldHeap;
+            long heldThreads;
+            try (var workers = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < CONNECTIONS; i++) {
+                    workers.submit(() -> {
+                        while (running.get()) {
+                            try {
+                                int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                                (status == 200 ? completed : failed).incrementAndGet();
+                            } catch (Exception e) {
+                                failed.incrementAndGet();
+                            }
+                            started.countDown();
+                        }
+                    });
+                }
+                try {
+                    if (!started.await(1, TimeUnit.MINUTES)) {
+                        throw new IllegalStateException("Not every connection completed a request within a minute");
+                    }
+                    Thread.sleep(HOLD);
+                    server.gc();
+                    heldHeap = sampler.heapUsedBytes();
+                    heldThreads = sampler.liveThreads();
+                } finally {
+                    running.set(false);
+                }
+            }
+            return new Footprint(CONNECTIONS, idleHeap, heldHeap, idleThreads, heldThreads, completed.get(), failed.get());
+        }
+    }
+
+    private static String summary(String stack, Result result) {
+        return String.format(Locale.ROOT, "%-10s %12.1f %12.2f %12.2f %14d %12.1f %12.2f%n", stack,
+                result.load().throughput(),
+                result.load().operations().get(Operation.GET_BY_ID).percentileMillis(99),
+                result.load().operations().get(Operation.FILTER).percentileMillis(99),
+                result.load().server().peakHeapBytes() >> 20,
+                result.footprint().heapBytesPerConnection() / 1024, result.footprint().threadsPerConnection());
+    }
+
+    private record Result(LoadReport load, Footprint footprint) {
+    }
+
+    private record Footprint(int connections, long idleHeapBytes, long heldHeapBytes, long idleThreads,
+                             long heldThreads, long completed, long failed) {
+
+        double heapBytesPerConnection() {
+            return (heldHeapBytes - idleHeapBytes) / (double) connections;
+        }
+
+        double threadsPerConnection() {
+            return (heldThreads - idleThreads) / (double) connections;
+        }
+
+        double errorRate() {
+            return completed + failed == 0 ? 1 : failed / (double) (completed + failed);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%d connections held (%d requests, %d failed): live heap %d -> %d KiB (%.1f KiB/conn), "
+                            + "threads %d -> %d (%.2f/conn)%n",
+                    connections, completed, failed, idleHeapBytes >> 10, heldHeapBytes >> 10,
+                    heapBytesPerConnection() / 1024, idleThreads, heldThreads, threadsPerConnection());
+        }
+    }
+}
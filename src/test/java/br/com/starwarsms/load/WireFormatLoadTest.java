@@ -0,0 +1,75 @@
+package br.com.starwarsms.load;
+
+import br.com.starwarsms.domain.Planet;
+import br.com.starwarsms.web.WireFormatConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Wall-clock encode/decode timings; only runs with -Pload. PlanetWireFormatTest covers correctness in the unit suite.
+public class WireFormatLoadTest {
+
+    private static final String[] CLIMATES = {"arid", "temperate", "frozen", "murky", "tropical"};
+    private static final String[] TERRAINS = {"desert", "jungle", "tundra", "swamp", "grasslands, mountains", "ocean"};
+    private static final int PLANETS = 1_000;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 500;
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final ObjectMapper smileMapper = new ObjectMapper(WireFormatConfig.smileFactory());
+    private final ObjectMapper cborMapper = new ObjectMapper(WireFormatConfig.cborFactory());
+
+    @Test
+    public void binaryFormats_EncodeAndDecodeTimings() throws Exception {
+        var planets = planets();
+
+        var json = jsonMapper.writeValueAsBytes(planets);
+        var smile = smileMapper.writeValueAsBytes(planets);
+        var cbor = cborMapper.writeValueAsBytes(planets);
+
+        assertTrue(smile.length < json.length);
+        assertTrue(cbor.length < json.length);
+
+        assertArrayEquals(planets.toArray(), smileMapper.readValue(smile, Planet[].class));
+        assertArrayEquals(planets.toArray(), cborMapper.readValue(cbor, Planet[].class));
+
+        report("json", jsonMapper, planets, json.length);
+        report("smile", smileMapper, planets, smile.length);
+        report("cbor", cborMapper, planets, cbor.length);
+    }
+
+    private static List<Planet> planets() {
+        List<Planet> planets = new ArrayList<>(PLANETS);
+        for (int i = 0; i < PLANETS; i++) {
+            planets.add(new Planet((long) i, "Planet-" + i, CLIMATES[i % CLIMATES.length], TERRAINS[i % TERRAINS.length]));
+        }
+        return planets;
+    }
+
+    private static void report(String format, ObjectMapper mapper, List<Planet> planets, int size) throws Exception {
+        var encoded = mapper.writeValueAsBytes(planets);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(planets), Planet[].class);
+        }
+
+        long encodeStart = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            mapper.writeValueAsBytes(planets);
+        }
+        long encodeNanos = (System.nanoTime() - encodeStart) / MEASURED_ROUNDS;
+
+        long decodeStart = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            mapper.readValue(encoded, Planet[].class);
+        }
+        long decodeNanos = (System.nanoTime() - decodeStart) / MEASURED_ROUNDS;
+
+        System.out.printf("%-5s size=%7d bytes encode=%7d us decode=%7d us (%d planets)%n",
+                format, size, encodeNanos / 1_000, decodeNanos / 1_000, planets.size());
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.starwarsms.unit;
+
+import br.com.starwarsms.stats.AccessSketch;
+import br.com.starwarsms.stats.HotKey;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AccessSketchTest {
+
+    private static final Duration WINDOW = Duration.ofSeconds(10);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final AccessSketch sketch = new AccessSketch(3, 4, 256, WINDOW, clock::get);
+
+    @Test
+    public void topK_ReturnsMostFrequentKeysInOrder() {
+        record(10L, 50);
+        record(11L, 30);
+        record(12L, 20);
+        for (long id = 100; id < 200; id++) {
+            sketch.record(id);
+        }
+
+        var topK = sketch.topK();
+
+        assertEquals(3, topK.size());
+        assertEquals("10", topK.get(0).key());
+        assertEquals("11", topK.get(1).key());
+        assertEquals("12", topK.get(2).key());
+        assertTrue(topK.get(0).count() >= 50);
+        assertTrue(sketch.isHot(10L, null));
+        assertFalse(sketch.isHot(150L, null));
+    }
+
+    @Test
+    public void record_WithPairs_TracksEachCombination() {
+        for (int i = 0; i < 5; i++) {
+            sketch.record("frozen", "tundra");
+        }
+        sketch.record("arid", "tundra");
+
+        assertEquals(new HotKey("frozen/tundra", 5), sketch.topK().getFirst());
+        assertTrue(sketch.estimate("frozen", "tundra") >= 5);
+    }
+
+    @Test
+    public void window_ForgetsKeysAfterTwoIdleWindows() {
+        record(10L, 5);
+
+        clock.addAndGet(WINDOW.toNanos());
+        sketch.record(11L);
+
+        assertTrue(sketch.estimate(10L, null) >= 5);
+        assertTrue(sketch.isHot(10L, null));
+
+        clock.addAndGet(2 * WINDOW.toNanos());
+        sketch.record(11L);
+
+        assertEquals(0, sketch.estimate(10L, null));
+        assertFalse(sketch.isHot(10L, null));
+        assertEquals(1, sketch.total());
+    }
+
+    @Test
+    public void createSketch_WithInvalidWidth_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new AccessSketch(3, 4, 100, WINDOW));
+    }
+
+    private void record(Long id, int times) {
+        for (int i = 0; i < times; i++) {
+            sketch.record(id);
+        }
+    }
+}
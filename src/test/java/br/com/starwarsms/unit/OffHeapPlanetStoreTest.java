@@ -0,0 +1,128 @@
+package br.com.starwarsms.unit;
+
+import br.com.starwarsms.cache.OffHeapPlanetStore;
+import br.com.starwarsms.domain.Planet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OffHeapPlanetStoreTest {
+
+    private static final Planet TATOOINE = new Planet(1L, "Tatooine", "arid", "desert", 3L);
+    private static final Planet HOTH = new Planet(2L, "Hoth", "frozen", "tundra, ice caves", 0L);
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void put_ThenGet_RoundTripsPlanet() {
+        var store = OffHeapPlanetStore.inMemory(64, 128, 4, clock::get);
+
+        assertTrue(store.put(TATOOINE));
+        assertTrue(store.put(new Planet(3L, "Dagobah", null, "swamp", null)));
+
+        assertEquals(Optional.of(TATOOINE), store.get(1L, 0));
+        assertEquals(Optional.of(TATOOINE), store.getByName("Tatooine", 0));
+        assertEquals(Optional.of(new Planet(3L, "Dagobah", null, "swamp", null)), store.get(3L, 0));
+        assertEquals(Optional.empty(), store.get(2L, 0));
+    }
+
+    @Test
+    public void getByName_AfterRename_IgnoresOldName() {
+        var store = OffHeapPlanetStore.inMemory(64, 128, 4, clock::get);
+        store.put(TATOOINE);
+
+        store.put(new Planet(1L, "Tatooine II", "arid", "desert", 4L));
+
+        assertEquals(Optional.empty(), store.getByName("Tatooine", 0));
+        assertEquals(4L, store.getByName("Tatooine II", 0).orElseThrow().getVersion());
+    }
+
+    @Test
+    public void put_WhenSetIsFull_EvictsLeastRecentlyUsed() {
+        // One set of two ways: every planet competes for the same slots.
+        var store = OffHeapPlanetStore.inMemory(2, 128, 2, clock::get);
+        store.put(TATOOINE);
+        store.put(HOTH);
+        store.get(1L, 0);
+
+        store.put(new Planet(3L, "Dagobah", "murky", "swamp", 0L));
+
+        assertTrue(store.get(1L, 0).isPresent());
+        assertFalse(store.get(2L, 0).isPresent());
+        assertTrue(store.get(3L, 0).isPresent());
+    }
+
+    @Test
+    public void get_WithEntryOlderThanCutoff_ReturnsEmpty() {
+        var store = OffHeapPlanetStore.inMemory(64, 128, 4, clock::get);
+        store.put(TATOOINE);
+        clock.addAndGet(500);
+
+        assertTrue(store.get(1L, 1_000).isPresent());
+        assertFalse(store.get(1L, 1_001).isPresent());
+    }
+
+    @Test
+    public void put_WithPlanetLargerThanSlot_IsRejected() {
+        var store = OffHeapPlanetStore.inMemory(64, 64, 4, clock::get);
+
+        assertFalse(store.put(new Planet(5L, "x".repeat(40), "arid", "desert", 0L)));
+        assertFalse(store.get(5L, 0).isPresent());
+    }
+
+    @Test
+    public void remove_DropsPlanetAndName() {
+        var store = OffHeapPlanetStore.inMemory(64, 128, 4, clock::get);
+        store.put(TATOOINE);
+        store.put(HOTH);
+
+        store.remove(1L);
+        store.removeName("Hoth");
+
+        assertFalse(store.get(1L, 0).isPresent());
+        assertFalse(store.getByName("Hoth", 0).isPresent());
+        assertTrue(store.get(2L, 0).isPresent());
+    }
+
+    @Test
+    public void mapped_AfterReopen_ServesStoredPlanets() {
+        Path file = directory.resolve("planets.cache");
+        try (var store = OffHeapPlanetStore.mapped(file, 64, 128, 4, clock::get)) {
+            store.put(TATOOINE);
+            store.put(HOTH);
+        }
+
+        try (var reopened = OffHeapPlanetStore.mapped(file, 64, 128, 4, clock::get)) {
+            assertEquals(Optional.of(TATOOINE), reopened.get(1L, 0));
+            assertEquals(Optional.of(HOTH), reopened.getByName("Hoth", 0));
+        }
+    }
+
+    @Test
+    public void mapped_WithDifferentLayout_StartsEmpty() {
+        Path file = directory.resolve("planets.cache");
+        try (var store = OffHeapPlanetStore.mapped(file, 64, 128, 4, clock::get)) {
+            store.put(TATOOINE);
+        }
+
+        try (var reopened = OffHeapPlanetStore.mapped(file, 64, 256, 4, clock::get)) {
+            assertFalse(reopened.get(1L, 0).isPresent());
+        }
+    }
+
+    @Test
+    public void inMemory_WithMisalignedSlotSize_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> OffHeapPlanetStore.inMemory(64, 100, 4, clock::get));
+    }
+}
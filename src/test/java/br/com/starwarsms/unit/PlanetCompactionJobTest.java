@@ -0,0 +1,89 @@
+package br.com.starwarsms.unit;
+
+import br.com.starwarsms.domain.PlanetCompactionJob;
+import br.com.starwarsms.domain.PlanetRepository;
+import br.com.starwarsms.sharding.ShardRouter;
+import br.com.starwarsms.stats.PlanetAccessStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PlanetCompactionJobTest {
+
+    @Mock
+    private PlanetRepository planetRepository;
+
+    @Mock
+    private PlanetAccessStatistics accessStatistics;
+
+    private PlanetCompactionJob compactionJob;
+
+    @BeforeEach
+    public void setUp() {
+        compactionJob = new PlanetCompactionJob(planetRepository, ShardRouter.single(), accessStatistics, 2, 3, Duration.ZERO, 100);
+    }
+
+    @Test
+    public void purgeTombstones_StopsWhenABatchIsNotFull() {
+        when(planetRepository.findTombstoneIds(PageRequest.of(0, 2))).thenReturn(List.of(1L, 2L), List.of(3L));
+        when(planetRepository.purgeTombstones(any())).thenReturn(2, 1);
+
+        assertEquals(3, compactionJob.purgeTombstones());
+
+        verify(planetRepository).purgeTombstones(List.of(1L, 2L));
+        verify(planetRepository).purgeTombstones(List.of(3L));
+    }
+
+    @Test
+    public void purgeTombstones_HonorsTheBatchLimit() {
+        when(planetRepository.findTombstoneIds(PageRequest.of(0, 2))).thenReturn(List.of(1L, 2L));
+        when(planetRepository.purgeTombstones(any())).thenReturn(2);
+
+        assertEquals(6, compactionJob.purgeTombstones());
+
+        verify(planetRepository, times(3)).purgeTombstones(any());
+    }
+
+    @Test
+    public void purgeTombstones_WithoutTombstones_DeletesNothing() {
+        when(planetRepository.findTombstoneIds(any())).thenReturn(List.of());
+
+        assertEquals(0, compactionJob.purgeTombstones());
+
+        verify(planetRepository, never()).purgeTombstones(any());
+    }
+
+    @Test
+    public void purgeTombstones_UnderHeavyTraffic_StopsBeforeTheNextBatch() {
+        when(accessStatistics.requestsInWindow()).thenReturn(10L, 100L);
+        when(planetRepository.findTombstoneIds(PageRequest.of(0, 2))).thenReturn(List.of(1L, 2L));
+        when(planetRepository.purgeTombstones(any())).thenReturn(2);
+
+        assertEquals(2, compactionJob.purgeTombstones());
+
+        verify(planetRepository, times(1)).purgeTombstones(any());
+    }
+
+    @Test
+    public void purgeTombstones_WhenBusy_DoesNotTouchTheTable() {
+        when(accessStatistics.requestsInWindow()).thenReturn(500L);
+
+        assertEquals(0, compactionJob.purgeTombstones());
+
+        verify(planetRepository, never()).findTombstoneIds(any());
+    }
+}
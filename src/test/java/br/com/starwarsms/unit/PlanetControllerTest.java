@@ -2,36 +2,59 @@ package br.com.starwarsms.unit;
 
 import br.com.starwarsms.domain.Planet;
 import br.com.starwarsms.domain.PlanetService;
+import br.com.starwarsms.enrichment.ClimateCategoryStage;
+import br.com.starwarsms.enrichment.PlanetEnrichmentPipeline;
+import br.com.starwarsms.enrichment.TerrainTagsStage;
 import br.com.starwarsms.web.PlanetController;
+import br.com.starwarsms.web.WireFormatConfig;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static br.com.starwarsms.common.PlanetConstants.PLANET_1;
 import static br.com.starwarsms.common.PlanetConstants.PLANET_2;
+import static br.com.starwarsms.web.WireFormatConfig.APPLICATION_SMILE;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(PlanetController.class)
+@Import({WireFormatConfig.class, PlanetEnrichmentPipeline.class, ClimateCategoryStage.class, TerrainTagsStage.class})
 public class PlanetControllerTest {
 
+    private final ObjectMapper smileMapper = new ObjectMapper(WireFormatConfig.smileFactory());
+
+    private final ObjectMapper cborMapper = new ObjectMapper(WireFormatConfig.cborFactory());
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -64,7 +87,8 @@ public class PlanetControllerTest {
 
         mockMvc.perform(post("/planets")
                         .content(objectMapper.writeValueAsString(invalidPlanet)).contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isUnprocessableEntity());
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.status").value(422));
     }
 
 
@@ -77,6 +101,45 @@ public class PlanetControllerTest {
                 .andExpect(status().isConflict());
     }
 
+    @Test
+    public void createPlanets_WithValidData_ShouldReturn201() throws Exception {
+        when(planetService.createPlanets(any())).thenReturn(List.of(PLANET_1, PLANET_2));
+
+        mockMvc.perform(post("/planets/batch")
+                        .content(objectMapper.writeValueAsString(List.of(PLANET_1, PLANET_2))).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].name").value(PLANET_1.getName()))
+                .andExpect(jsonPath("$[1].name").value(PLANET_2.getName()));
+    }
+
+    @Test
+    public void createPlanets_WithInvalidData_ShouldReturn422() throws Exception {
+        mockMvc.perform(post("/planets/batch")
+                        .content(objectMapper.writeValueAsString(List.of(PLANET_1, new Planet()))).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.status").value(422));
+    }
+
+    @Test
+    public void createPlanets_WithCbor_ShouldReturn201() throws Exception {
+        when(planetService.createPlanets(any())).thenReturn(List.of(PLANET_1, PLANET_2));
+
+        var result = mockMvc.perform(post("/planets/batch")
+                        .content(cborMapper.writeValueAsBytes(List.of(PLANET_1, PLANET_2)))
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        var planets = cborMapper.readValue(result.getResponse().getContentAsByteArray(), Planet[].class);
+
+        assertEquals(2, planets.length);
+        assertEquals(PLANET_1.getName(), planets[0].getName());
+        assertEquals(PLANET_2.getName(), planets[1].getName());
+    }
+
     @Test
     public void getPlanetById_WithValidId_ShouldReturn200() throws Exception {
         when(planetService.getPlanetById(any())).thenReturn(Optional.of(PLANET_2));
@@ -89,6 +152,24 @@ public class PlanetControllerTest {
 
     }
 
+    @Test
+    public void getPlanetById_WithVersion_ShouldReturnETag() throws Exception {
+        when(planetService.getPlanetById(any())).thenReturn(Optional.of(versioned(PLANET_2, 3L)));
+
+        mockMvc.perform(get("/planets/2").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.version").value(3));
+    }
+
+    @Test
+    public void getPlanetById_WithMatchingIfNoneMatch_ShouldReturn304() throws Exception {
+        when(planetService.getPlanetById(any())).thenReturn(Optional.of(versioned(PLANET_2, 3L)));
+
+        mockMvc.perform(get("/planets/2").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     public void getPlanetById_WithInvalidId_ShouldReturn404() throws Exception {
         when(planetService.getPlanetById(any())).thenReturn(Optional.empty());
@@ -134,6 +215,132 @@ public class PlanetControllerTest {
                 .andExpect(jsonPath("$", empty()));
     }
 
+    @Test
+    public void getPlanets_WithExpand_ShouldReturnDerivedFields() throws Exception {
+        when(planetService.getPlanets(any(), any())).thenReturn(List.of(
+                new Planet(1L, "Endor", "Temperate", "Forests, mountains, lakes")));
+
+        mockMvc.perform(get("/planets").param("expand", "climateCategory,terrainTags"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].climateCategory").value("temperate"))
+                .andExpect(jsonPath("$[0].terrainTags", contains("forests", "mountains", "lakes")));
+    }
+
+    @Test
+    public void getPlanets_WithoutExpand_ShouldOmitDerivedFields() throws Exception {
+        when(planetService.getPlanets(any(), any())).thenReturn(List.of(PLANET_2));
+
+        mockMvc.perform(get("/planets"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].climateCategory").doesNotExist())
+                .andExpect(jsonPath("$[0].terrainTags").doesNotExist());
+    }
+
+    @Test
+    public void getPlanets_WithUnknownExpand_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/planets").param("expand", "population"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getPlanet_WithSmile_ShouldReturn200() throws Exception {
+        when(planetService.getPlanets(any(), any())).thenReturn(List.of(PLANET_1, PLANET_2));
+
+        var result = mockMvc.perform(get("/planets").accept(APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_SMILE))
+                .andReturn();
+
+        var planets = smileMapper.readValue(result.getResponse().getContentAsByteArray(), Planet[].class);
+
+        assertEquals(2, planets.length);
+        assertEquals(PLANET_1.getClimate(), planets[0].getClimate());
+        assertEquals(PLANET_2.getTerrain(), planets[1].getTerrain());
+    }
+
+    @Test
+    public void replacePlanet_WithMatchingVersion_ShouldReturn200() throws Exception {
+        when(planetService.updatePlanet(eq(2L), eq(3L), any())).thenReturn(Optional.of(4L));
+
+        mockMvc.perform(put("/planets/2").header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .content(objectMapper.writeValueAsString(PLANET_1)).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.id").value(2))
+                .andExpect(jsonPath("$.name").value(PLANET_1.getName()))
+                .andExpect(jsonPath("$.version").value(4));
+    }
+
+    @Test
+    public void replacePlanet_WithStaleVersion_ShouldReturn412() throws Exception {
+        when(planetService.updatePlanet(any(), any(), any())).thenThrow(OptimisticLockingFailureException.class);
+
+        mockMvc.perform(put("/planets/2").header(HttpHeaders.IF_MATCH, "\"1\"")
+                        .content(objectMapper.writeValueAsString(PLANET_1)).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    public void replacePlanet_WithWeakETag_ShouldReturn412() throws Exception {
+        mockMvc.perform(put("/planets/2").header(HttpHeaders.IF_MATCH, "W/\"1\"")
+                        .content(objectMapper.writeValueAsString(PLANET_1)).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    public void replacePlanet_WithETagList_MatchesAnyListedVersion() throws Exception {
+        when(planetService.updatePlanetIfVersionIn(eq(2L), eq(Set.of(3L, 4L)), any())).thenReturn(Optional.of(5L));
+
+        mockMvc.perform(put("/planets/2").header(HttpHeaders.IF_MATCH, "\"3\", W/\"9\", \"4\"")
+                        .content(objectMapper.writeValueAsString(PLANET_1)).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""));
+    }
+
+    @Test
+    public void replacePlanet_WithMalformedIfMatch_ShouldReturn400() throws Exception {
+        mockMvc.perform(put("/planets/2").header(HttpHeaders.IF_MATCH, "3")
+                        .content(objectMapper.writeValueAsString(PLANET_1)).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/planets/2").header(HttpHeaders.IF_MATCH, "\"3\", \"4")
+                        .content("{\"climate\":\"arid\"}").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(planetService);
+    }
+
+    @Test
+    public void replacePlanet_WithInvalidData_ShouldReturn422() throws Exception {
+        mockMvc.perform(put("/planets/2")
+                        .content(objectMapper.writeValueAsString(new Planet())).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    public void replacePlanet_WithUnexistingId_ShouldReturn404() throws Exception {
+        when(planetService.updatePlanet(any(), isNull(), any())).thenReturn(Optional.empty());
+
+        mockMvc.perform(put("/planets/22")
+                        .content(objectMapper.writeValueAsString(PLANET_1)).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void patchPlanet_WithMatchingVersion_ShouldReturn204() throws Exception {
+        when(planetService.updatePlanet(eq(2L), eq(3L), any())).thenReturn(Optional.of(4L));
+
+        mockMvc.perform(patch("/planets/2").header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .content("{\"climate\":\"arid\"}").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    public void patchPlanet_WithBlankField_ShouldReturn422() throws Exception {
+        mockMvc.perform(patch("/planets/2").header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .content("{\"name\":\" \"}").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
     @Test
     public void deletePlanetById_WithValidId_ShouldReturn204() throws Exception {
         mockMvc.perform(delete("/planets/2").contentType(MediaType.APPLICATION_JSON))
@@ -146,4 +353,8 @@ public class PlanetControllerTest {
         mockMvc.perform(delete("/planets/1").contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
+
+    private static Planet versioned(Planet planet, Long version) {
+        return new Planet(planet.getId(), planet.getName(), planet.getClimate(), planet.getTerrain(), version);
+    }
 }
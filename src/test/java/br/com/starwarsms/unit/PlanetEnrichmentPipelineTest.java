@@ -0,0 +1,103 @@
+package br.com.starwarsms.unit;
+
+import br.com.starwarsms.domain.Planet;
+import br.com.starwarsms.enrichment.ClimateCategoryStage;
+import br.com.starwarsms.enrichment.Expansion;
+import br.com.starwarsms.enrichment.PlanetEnrichment;
+import br.com.starwarsms.enrichment.PlanetEnrichmentPipeline;
+import br.com.starwarsms.enrichment.TerrainTagsStage;
+import br.com.starwarsms.enrichment.TokenDictionary;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PlanetEnrichmentPipelineTest {
+
+    private static final String[] CLIMATES = {"arid", "Temperate, tropical", "frozen", "murky", "polluted", null};
+    private static final String[] TERRAINS = {"desert", "grasslands, Mountains", "tundra, ice caves", "swamp, jungles", " , "};
+
+    private final List<Planet> planets = planets(5_000);
+
+    @Test
+    public void enrich_WithBothExpansions_DerivesFields() {
+        var pipeline = pipeline(Integer.MAX_VALUE);
+
+        var enrichments = pipeline.enrich(planets.subList(0, 6), EnumSet.allOf(Expansion.class));
+
+        assertEquals(new PlanetEnrichment("arid", List.of("desert")), enrichments.get(0));
+        assertEquals(new PlanetEnrichment("temperate", List.of("grasslands", "mountains")), enrichments.get(1));
+        assertEquals(new PlanetEnrichment("frozen", List.of("tundra", "ice caves")), enrichments.get(2));
+        assertEquals(new PlanetEnrichment("wet", List.of("swamp", "jungles")), enrichments.get(3));
+        assertEquals(new PlanetEnrichment("other", List.of()), enrichments.get(4));
+        assertEquals("unknown", enrichments.get(5).climateCategory());
+    }
+
+    @Test
+    public void enrich_WithOneExpansion_LeavesOtherFieldEmpty() {
+        var enrichments = pipeline(Integer.MAX_VALUE).enrich(planets.subList(0, 1), Set.of(Expansion.TERRAIN_TAGS));
+
+        assertNull(enrichments.getFirst().climateCategory());
+        assertEquals(List.of("desert"), enrichments.getFirst().terrainTags());
+    }
+
+    @Test
+    public void enrich_InParallel_MatchesSequentialOrder() {
+        var sequential = pipeline(Integer.MAX_VALUE).enrich(planets, EnumSet.allOf(Expansion.class));
+        var parallel = pipeline(1).enrich(planets, EnumSet.allOf(Expansion.class));
+
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void enricher_MatchesTheListEnrichment() {
+        var enricher = pipeline(Integer.MAX_VALUE).enricher(EnumSet.allOf(Expansion.class));
+
+        assertEquals(pipeline(Integer.MAX_VALUE).enrich(planets, EnumSet.allOf(Expansion.class)),
+                planets.stream().map(enricher).toList());
+    }
+
+    @Test
+    public void enrich_WithRepeatedTerrain_ReusesParsedTags() {
+        var enrichments = pipeline(1).enrich(planets, Set.of(Expansion.TERRAIN_TAGS));
+
+        assertSame(enrichments.get(1).terrainTags(), enrichments.get(1 + TERRAINS.length).terrainTags());
+    }
+
+    @Test
+    public void lookup_PastMaxSize_ParsesWithoutRemembering() {
+        var dictionary = new TokenDictionary<Integer>(2);
+
+        dictionary.lookup("a", String::length);
+        dictionary.lookup("bb", String::length);
+
+        assertEquals(3, dictionary.lookup("ccc", String::length));
+        assertEquals(2, dictionary.size());
+    }
+
+    @Test
+    public void fromParameter_WithUnknownName_ThrowsException() {
+        assertEquals(Expansion.TERRAIN_TAGS, Expansion.fromParameter("terraintags"));
+        assertThrows(IllegalArgumentException.class, () -> Expansion.fromParameter("population"));
+    }
+
+    private static PlanetEnrichmentPipeline pipeline(int parallelThreshold) {
+        return new PlanetEnrichmentPipeline(List.of(new TerrainTagsStage(100), new ClimateCategoryStage(100)),
+                parallelThreshold);
+    }
+
+    private static List<Planet> planets(int count) {
+        List<Planet> planets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            planets.add(new Planet((long) i, "Planet-" + i, CLIMATES[i % CLIMATES.length], TERRAINS[i % TERRAINS.length]));
+        }
+        return planets;
+    }
+}
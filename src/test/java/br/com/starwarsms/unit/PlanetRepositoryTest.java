@@ -13,8 +13,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Example;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.jdbc.Sql;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 import static br.com.starwarsms.common.PlanetConstants.PLANET_1;
@@ -175,6 +178,59 @@ public class PlanetRepositoryTest {
         assertEquals("swamp", responseTerrainPlanet.getFirst().getTerrain());
     }
 
+    @Test
+    public void updatePlanet_WithMatchingVersion_UpdatesAndBumpsVersion() {
+        var planet = entityManager.persistFlushFind(planet1);
+
+        var updated = planetRepository.updateIfVersionMatches(planet.getId(), planet.getVersion(), null, "arid", null);
+
+        assertEquals(1, updated);
+
+        var sut = entityManager.find(Planet.class, planet.getId());
+
+        assertEquals(planet.getName(), sut.getName());
+        assertEquals("arid", sut.getClimate());
+        assertEquals(planet.getTerrain(), sut.getTerrain());
+        assertEquals(planet.getVersion() + 1, sut.getVersion());
+    }
+
+    @Test
+    public void updatePlanet_WithStaleVersion_UpdatesNothing() {
+        var planet = entityManager.persistFlushFind(planet1);
+
+        var updated = planetRepository.updateIfVersionMatches(planet.getId(), planet.getVersion() + 1, "Hoth", null, null);
+
+        assertEquals(0, updated);
+        assertEquals(planet.getName(), entityManager.find(Planet.class, planet.getId()).getName());
+    }
+
+    @Test
+    public void updatePlanet_WithAnyListedVersion_Updates() {
+        var planet = entityManager.persistFlushFind(planet1);
+
+        assertEquals(0, planetRepository.updateIfVersionIn(planet.getId(), List.of(7L, 8L), null, "arid", null));
+        assertEquals(1, planetRepository.updateIfVersionIn(planet.getId(), List.of(7L, planet.getVersion()), null, "arid", null));
+        assertEquals(Optional.of(planet.getVersion() + 1), planetRepository.findVersionById(planet.getId()));
+    }
+
+    @Test
+    public void updatePlanet_WithoutVersion_UpdatesAndBumpsVersion() {
+        var planet = entityManager.persistFlushFind(planet1);
+
+        assertEquals(1, planetRepository.update(planet.getId(), null, "arid", null));
+        assertEquals(Optional.of(planet.getVersion() + 1), planetRepository.findVersionById(planet.getId()));
+        assertEquals("arid", entityManager.find(Planet.class, planet.getId()).getClimate());
+    }
+
+    @Test
+    public void updatePlanet_WithoutVersion_SkipsTombstones() {
+        var planet = entityManager.persistFlushFind(planet1);
+        planetRepository.markDeleted(planet.getId());
+
+        assertEquals(0, planetRepository.update(planet.getId(), null, "arid", null));
+        assertEquals(Optional.empty(), planetRepository.findVersionById(planet.getId()));
+    }
+
     @Test
     public void deletePlanetById_WithValidId_DeletesPlanet() {
         var planetTobeDeleted = entityManager.persistFlushFind(new Planet(null, "any", "climate", "terrain"));
@@ -187,4 +243,54 @@ public class PlanetRepositoryTest {
 
         assertNull(sut);
     }
+
+    @Test
+    public void markDeleted_WithValidId_HidesPlanetFromReads() {
+        var planet = entityManager.persistFlushFind(planet1);
+
+        var deleted = planetRepository.markDeleted(planet.getId());
+
+        assertEquals(1, deleted);
+        assertFalse(planetRepository.findById(planet.getId()).isPresent());
+        assertFalse(planetRepository.findByName(planet.getName()).isPresent());
+        assertFalse(planetRepository.existsById(planet.getId()));
+        assertEquals(0, planetRepository.findAll(QueryBuilder.buildQuery(new Planet())).size());
+        assertEquals(0, planetRepository.markDeleted(planet.getId()));
+    }
+
+    @Sql(scripts = {"/import_planets.sql"})
+    @Test
+    public void purgeTombstones_RemovesOnlyTombstonedRows() {
+        planetRepository.markDeleted(10L);
+        planetRepository.markDeleted(11L);
+
+        var tombstones = planetRepository.findTombstoneIds(PageRequest.of(0, 1));
+
+        assertEquals(List.of(10L), tombstones);
+        assertEquals(1, planetRepository.purgeTombstones(tombstones));
+        assertEquals(List.of(11L), planetRepository.findTombstoneIds(PageRequest.of(0, 10)));
+        assertEquals(0, planetRepository.purgeTombstones(List.of(12L)));
+        assertEquals(2, planetRepository.findAll(QueryBuilder.buildQuery(new Planet())).size());
+    }
+
+    @Test
+    public void purgeTombstoneByName_FreesTheName() {
+        var planet = entityManager.persistFlushFind(planet1);
+        planetRepository.markDeleted(planet.getId());
+
+        assertEquals(1, planetRepository.purgeTombstoneByName(planet.getName()));
+
+        var recreated = planetRepository.save(new Planet(null, planet.getName(), planet.getClimate(), planet.getTerrain()));
+
+        assertNotNull(recreated.getId());
+    }
+
+    @Test
+    public void purgeTombstonesByName_FreesOnlyTombstonedNames() {
+        var planet = entityManager.persistFlushFind(planet1);
+        planetRepository.markDeleted(planet.getId());
+
+        assertEquals(1, planetRepository.purgeTombstonesByName(List.of(planet.getName(), "Hoth")));
+        assertEquals(0, planetRepository.purgeTombstonesByName(List.of(planet.getName())));
+    }
 }
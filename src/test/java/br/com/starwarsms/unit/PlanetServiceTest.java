@@ -1,23 +1,41 @@
 package br.com.starwarsms.unit;
 
 
+import br.com.starwarsms.cache.OffHeapPlanetStore;
+import br.com.starwarsms.cache.PlanetCache;
+import br.com.starwarsms.cache.TieredPlanetCache;
 import br.com.starwarsms.domain.Planet;
 import br.com.starwarsms.domain.PlanetRepository;
 import br.com.starwarsms.domain.PlanetService;
 import br.com.starwarsms.domain.QueryBuilder;
+import br.com.starwarsms.sharding.RangeShardingStrategy;
+import br.com.starwarsms.sharding.ShardRouter;
+import br.com.starwarsms.stats.PlanetAccessStatistics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Example;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 
 import static br.com.starwarsms.common.PlanetConstants.INVALID_PLANET;
 import static br.com.starwarsms.common.PlanetConstants.PLANET_1;
+import static br.com.starwarsms.common.PlanetConstants.PLANET_2;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -25,7 +43,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -38,6 +56,25 @@ public class PlanetServiceTest {
     @Mock
     private PlanetRepository planetRepository;
 
+    @Mock
+    private PlanetAccessStatistics accessStatistics;
+
+    @Spy
+    private ShardRouter shardRouter = ShardRouter.single();
+
+    @Mock
+    private PlanetCache planetCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ShardRouter twoShards = new ShardRouter(new RangeShardingStrategy(2, 100), 1);
+
+    @AfterEach
+    public void tearDown() {
+        twoShards.close();
+    }
+
     @Test
     public void createPlanet_WithValidData_ReturnsPlanet() {
         when(planetRepository.save(any())).thenReturn(PLANET_1);
@@ -48,6 +85,7 @@ public class PlanetServiceTest {
         assertEquals(PLANET_1.getName(), planet.getName());
         assertEquals(PLANET_1.getClimate(), planet.getClimate());
         assertEquals(PLANET_1.getTerrain(), planet.getTerrain());
+        verify(planetCache).evictName(PLANET_1.getName());
     }
 
     @Test
@@ -57,6 +95,19 @@ public class PlanetServiceTest {
         assertThrows(RuntimeException.class, () -> planetService.createPlanet(INVALID_PLANET));
     }
 
+    @Test
+    public void createPlanets_WithValidData_ReturnsPlanets() {
+        when(planetRepository.saveAll(any())).thenReturn(List.of(PLANET_1, PLANET_2));
+
+        var planets = planetService.createPlanets(List.of(PLANET_1, PLANET_2));
+
+        assertNotNull(planets);
+        assertEquals(2, planets.size());
+        assertEquals(PLANET_1.getName(), planets.get(0).getName());
+        assertEquals(PLANET_2.getName(), planets.get(1).getName());
+        verify(planetRepository).purgeTombstonesByName(List.of(PLANET_1.getName(), PLANET_2.getName()));
+    }
+
     @Test
     public void getPlanetById_WithValidId_ReturnsPlanet() {
         when(planetRepository.findById(any())).thenReturn(Optional.of(PLANET_1));
@@ -69,6 +120,25 @@ public class PlanetServiceTest {
         assertEquals(PLANET_1.getTerrain(), planet.get().getTerrain());
     }
 
+    @Test
+    public void getPlanetById_WhenCached_SkipsRepository() {
+        when(planetCache.getById(2L)).thenReturn(Optional.of(PLANET_2));
+
+        var planet = planetService.getPlanetById(2L);
+
+        assertEquals(Optional.of(PLANET_2), planet);
+        verify(planetRepository, never()).findById(any());
+    }
+
+    @Test
+    public void getPlanetById_WhenNotCached_CachesPlanet() {
+        when(planetRepository.findById(2L)).thenReturn(Optional.of(PLANET_2));
+
+        planetService.getPlanetById(2L);
+
+        verify(planetCache).put(PLANET_2);
+    }
+
     @Test
     public void getPlanetById_WithInvalidId_ThrowsException() {
         when(planetRepository.findById(any())).thenReturn(Optional.empty());
@@ -111,6 +181,7 @@ public class PlanetServiceTest {
         assertEquals(1, planets.size());
 
         verify(planetRepository).findAll(query);
+        verify(accessStatistics).recordFilter(PLANET_1.getClimate(), PLANET_1.getTerrain());
     }
 
     @Test
@@ -125,17 +196,206 @@ public class PlanetServiceTest {
         assertEquals(0, planets.size());
     }
 
+    @Test
+    public void updatePlanet_WithMatchingVersion_ReturnsNextVersion() {
+        when(planetRepository.updateIfVersionMatches(2L, 3L, PLANET_1.getName(), PLANET_1.getClimate(), PLANET_1.getTerrain()))
+                .thenReturn(1);
+
+        var version = planetService.updatePlanet(2L, 3L, PLANET_1);
+
+        assertTrue(version.isPresent());
+        assertEquals(4L, version.get());
+        verify(planetRepository, never()).findVersionById(any());
+    }
+
+    @Test
+    public void updatePlanet_WithStaleVersion_ThrowsException() {
+        when(planetRepository.updateIfVersionMatches(any(), any(), any(), any(), any())).thenReturn(0);
+        when(planetRepository.findVersionById(2L)).thenReturn(Optional.of(2L));
+
+        assertThrows(OptimisticLockingFailureException.class, () -> planetService.updatePlanet(2L, 1L, PLANET_1));
+    }
+
+    @Test
+    public void updatePlanet_WithUnexistingId_ReturnsEmpty() {
+        when(planetRepository.updateIfVersionMatches(any(), any(), any(), any(), any())).thenReturn(0);
+        when(planetRepository.findVersionById(2L)).thenReturn(Optional.empty());
+
+        var version = planetService.updatePlanet(2L, 1L, PLANET_1);
+
+        assertFalse(version.isPresent());
+    }
+
+    @Test
+    public void updatePlanet_WithoutVersion_UpdatesWithoutPrecondition() {
+        when(planetRepository.update(2L, PLANET_1.getName(), PLANET_1.getClimate(), PLANET_1.getTerrain())).thenReturn(1);
+        when(planetRepository.findVersionById(2L)).thenReturn(Optional.of(8L));
+
+        var version = planetService.updatePlanet(2L, null, PLANET_1);
+
+        assertEquals(Optional.of(8L), version);
+        verify(planetRepository, never()).updateIfVersionMatches(any(), any(), any(), any(), any());
+        verify(planetCache).evict(2L, 8L);
+    }
+
+    @Test
+    public void updatePlanetIfVersionIn_WithSeveralVersions_ReturnsTheVersionWritten() {
+        when(planetRepository.updateIfVersionIn(2L, Set.of(3L, 4L), null, "icy", null)).thenReturn(1);
+        when(planetRepository.findVersionById(2L)).thenReturn(Optional.of(5L));
+
+        var version = planetService.updatePlanetIfVersionIn(2L, Set.of(3L, 4L), new Planet(null, null, "icy", null));
+
+        assertEquals(Optional.of(5L), version);
+        verify(planetCache).evict(2L, 5L);
+    }
+
+    @Test
+    public void updatePlanetIfVersionIn_WithNoMatchingVersion_ThrowsException() {
+        when(planetRepository.updateIfVersionIn(any(), any(), any(), any(), any())).thenReturn(0);
+        when(planetRepository.findVersionById(2L)).thenReturn(Optional.of(7L));
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> planetService.updatePlanetIfVersionIn(2L, Set.of(3L, 4L), PLANET_1));
+    }
+
+    @Test
+    public void updatePlanet_WithoutVersionAndUnexistingId_ReturnsEmpty() {
+        when(planetRepository.update(any(), any(), any(), any())).thenReturn(0);
+
+        assertFalse(planetService.updatePlanet(2L, null, PLANET_1).isPresent());
+        verify(planetRepository, never()).findVersionById(any());
+    }
+
+    @Test
+    public void createPlanet_WithTombstonedName_ReclaimsName() {
+        when(planetRepository.save(PLANET_1)).thenThrow(DataIntegrityViolationException.class).thenReturn(PLANET_1);
+        when(planetRepository.purgeTombstoneByName(PLANET_1.getName())).thenReturn(1);
+
+        var planet = planetService.createPlanet(PLANET_1);
+
+        assertEquals(PLANET_1.getName(), planet.getName());
+        verify(planetRepository).purgeTombstoneByName(PLANET_1.getName());
+    }
+
+    @Test
+    public void createPlanet_WithExistingName_ThrowsException() {
+        when(planetRepository.save(PLANET_1)).thenThrow(DataIntegrityViolationException.class);
+        when(planetRepository.purgeTombstoneByName(PLANET_1.getName())).thenReturn(0);
+
+        assertThrows(DataIntegrityViolationException.class, () -> planetService.createPlanet(PLANET_1));
+    }
+
+    @Test
+    public void updatePlanet_WithNameTakenOnAnotherShard_ThrowsException() {
+        var sharded = shardedService();
+        when(planetRepository.findByNameIn(List.of("Hoth"))).thenReturn(List.of(new Planet(7L, "Hoth", "frozen", "tundra", 0L)));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> sharded.updatePlanet(2L, 1L, new Planet(null, "Hoth", null, null)));
+        verify(planetRepository, never()).updateIfVersionMatches(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void updatePlanet_KeepingItsOwnName_Updates() {
+        var sharded = shardedService();
+        when(planetRepository.findByNameIn(List.of("Hoth"))).thenReturn(List.of(new Planet(2L, "Hoth", "frozen", "tundra", 0L)));
+        when(planetRepository.updateIfVersionMatches(2L, 1L, "Hoth", "icy", null)).thenReturn(1);
+
+        assertEquals(Optional.of(2L), sharded.updatePlanet(2L, 1L, new Planet(null, "Hoth", "icy", null)));
+    }
+
+    @Test
+    public void createPlanet_WithNameTakenOnAnotherShard_ThrowsException() {
+        var sharded = shardedService();
+        when(planetRepository.findByNameIn(List.of(PLANET_1.getName())))
+                .thenReturn(List.of(new Planet(7L, PLANET_1.getName(), PLANET_1.getClimate(), PLANET_1.getTerrain(), 0L)));
+
+        assertThrows(DataIntegrityViolationException.class, () -> sharded.createPlanet(PLANET_1));
+        verify(planetRepository, never()).save(any());
+    }
+
+    @Test
+    public void createPlanet_WithIdPastTheShardRange_ThrowsException() {
+        var sharded = shardedService();
+        var name = twoShards.shardForName("Hoth") == 0 ? "Hoth" : "Dagobah";
+        when(planetRepository.save(any())).thenReturn(new Planet(101L, name, "frozen", "tundra", 0L));
+
+        assertThrows(IllegalStateException.class, () -> sharded.createPlanet(new Planet(null, name, "frozen", "tundra")));
+    }
+
     @Test
     public void deletePlanet_WithValidId_DeletesPlanet() {
-        assertDoesNotThrow( () -> planetService.deletePlanet(PLANET_1.getId()));
+        when(planetRepository.markDeleted(1L)).thenReturn(1);
+
+        assertDoesNotThrow( () -> planetService.deletePlanet(1L));
+        verify(planetRepository, never()).deleteById(any());
+        verify(planetCache).evict(1L, Long.MAX_VALUE);
     }
 
     @Test
     public void deletePlanet_WithInvalidId_ThrowsException() {
-        doThrow(new RuntimeException()).when(planetRepository).deleteById(any());
+        when(planetRepository.markDeleted(1L)).thenReturn(0);
+
+        assertThrows(EmptyResultDataAccessException.class, () -> planetService.deletePlanet(1L));
+
+    }
+
+    @Test
+    public void updatePlanet_InvalidatesBothCacheTiers() {
+        var offHeap = OffHeapPlanetStore.inMemory(64, 128, 4, System::currentTimeMillis);
+        var cached = cachedService(offHeap);
+        when(planetRepository.updateIfVersionMatches(any(), any(), any(), any(), any())).thenReturn(1);
 
-        assertThrows(RuntimeException.class, () -> planetService.deletePlanet(1L));
+        cached.updatePlanet(2L, 0L, new Planet(null, null, "icy", null));
+
+        assertFalse(offHeap.get(2L, 0).isPresent());
+        assertFalse(cached.getPlanetById(2L).isPresent());
+    }
+
+    @Test
+    public void deletePlanet_InvalidatesBothCacheTiers() {
+        var offHeap = OffHeapPlanetStore.inMemory(64, 128, 4, System::currentTimeMillis);
+        var cached = cachedService(offHeap);
+        when(planetRepository.markDeleted(2L)).thenReturn(1);
+
+        cached.deletePlanet(2L);
+
+        assertFalse(offHeap.get(2L, 0).isPresent());
+        assertFalse(cached.getPlanetById(2L).isPresent());
+    }
+
+    @Test
+    public void updatePlanet_InsideATransaction_EvictsOnlyAfterCommit() {
+        var offHeap = OffHeapPlanetStore.inMemory(64, 128, 4, System::currentTimeMillis);
+        var cached = cachedService(offHeap);
+        when(planetRepository.updateIfVersionMatches(any(), any(), any(), any(), any())).thenReturn(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cached.updatePlanet(2L, 0L, new Planet(null, null, "icy", null));
+            assertTrue(offHeap.get(2L, 0).isPresent());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertFalse(offHeap.get(2L, 0).isPresent());
+            assertFalse(cached.getPlanetById(2L).isPresent());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // The near tier holds a single planet, so PLANET_2 sits in both tiers once it has been looked up.
+    private PlanetService cachedService(OffHeapPlanetStore offHeap) {
+        var cache = new TieredPlanetCache(offHeap, 1, Duration.ofMinutes(1), System::currentTimeMillis,
+                new SimpleMeterRegistry());
+        var service = new PlanetService(planetRepository, accessStatistics, shardRouter, cache, transactionManager);
+        when(planetRepository.findById(2L)).thenReturn(Optional.of(PLANET_2));
+        service.getPlanetById(2L);
+        when(planetRepository.findById(2L)).thenReturn(Optional.empty());
+        return service;
+    }
 
+    private PlanetService shardedService() {
+        return new PlanetService(planetRepository, accessStatistics, twoShards, planetCache, transactionManager);
     }
 
 }
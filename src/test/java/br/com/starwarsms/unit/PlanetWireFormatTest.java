@@ -0,0 +1,48 @@
+package br.com.starwarsms.unit;
+
+import br.com.starwarsms.domain.Planet;
+import br.com.starwarsms.web.WireFormatConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PlanetWireFormatTest {
+
+    private static final String[] CLIMATES = {"arid", "temperate", "frozen", "murky", "tropical"};
+    private static final String[] TERRAINS = {"desert", "jungle", "tundra", "swamp", "grasslands, mountains", "ocean"};
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final ObjectMapper smileMapper = new ObjectMapper(WireFormatConfig.smileFactory());
+    private final ObjectMapper cborMapper = new ObjectMapper(WireFormatConfig.cborFactory());
+
+    @Test
+    public void binaryFormats_RoundTripPlanets() throws Exception {
+        var planets = planets(100);
+
+        assertArrayEquals(planets.toArray(), smileMapper.readValue(smileMapper.writeValueAsBytes(planets), Planet[].class));
+        assertArrayEquals(planets.toArray(), cborMapper.readValue(cborMapper.writeValueAsBytes(planets), Planet[].class));
+    }
+
+    @Test
+    public void binaryFormats_WithRepeatedValues_AreSmallerThanJson() throws Exception {
+        var planets = planets(100);
+
+        var json = jsonMapper.writeValueAsBytes(planets).length;
+
+        assertTrue(smileMapper.writeValueAsBytes(planets).length < json);
+        assertTrue(cborMapper.writeValueAsBytes(planets).length < json);
+    }
+
+    private static List<Planet> planets(int count) {
+        List<Planet> planets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            planets.add(new Planet((long) i, "Planet-" + i, CLIMATES[i % CLIMATES.length], TERRAINS[i % TERRAINS.length]));
+        }
+        return planets;
+    }
+}
@@ -0,0 +1,154 @@
+package br.com.starwarsms.unit;
+
+import br.com.starwarsms.domain.Planet;
+import br.com.starwarsms.domain.ReactivePlanetService;
+import br.com.starwarsms.enrichment.ClimateCategoryStage;
+import br.com.starwarsms.enrichment.PlanetEnrichmentPipeline;
+import br.com.starwarsms.enrichment.TerrainTagsStage;
+import br.com.starwarsms.web.ReactivePlanetController;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static br.com.starwarsms.common.PlanetConstants.PLANET_1;
+import static br.com.starwarsms.common.PlanetConstants.PLANET_2;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ReactivePlanetController.class)
+@Import({PlanetEnrichmentPipeline.class, ClimateCategoryStage.class, TerrainTagsStage.class})
+public class ReactivePlanetControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private ReactivePlanetService planetService;
+
+    @Test
+    public void createPlanet_WithValidData_ShouldReturn201() throws Exception {
+        when(planetService.createPlanet(PLANET_1)).thenReturn(Mono.just(PLANET_1));
+
+        performAsync(post("/reactive/planets")
+                .content(objectMapper.writeValueAsString(PLANET_1)).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.name").value(PLANET_1.getName()));
+    }
+
+    @Test
+    public void createPlanet_WithInvalidData_ShouldReturn422() throws Exception {
+        mockMvc.perform(post("/reactive/planets")
+                        .content(objectMapper.writeValueAsString(new Planet())).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    public void createPlanet_WithExistingName_ShouldReturn409() throws Exception {
+        when(planetService.createPlanet(any())).thenReturn(Mono.error(new DataIntegrityViolationException("duplicate")));
+
+        performAsync(post("/reactive/planets")
+                .content(objectMapper.writeValueAsString(PLANET_1)).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    public void getPlanetById_WithValidId_ShouldReturn200() throws Exception {
+        when(planetService.getPlanetById(any())).thenReturn(Mono.just(PLANET_2));
+
+        performAsync(get("/reactive/planets/2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(PLANET_2.getName()));
+    }
+
+    @Test
+    public void getPlanetByName_WithInvalidName_ShouldReturn404() throws Exception {
+        when(planetService.getPlanetByName(any())).thenReturn(Mono.empty());
+
+        performAsync(get("/reactive/planets/name/{name}", "invalid name"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void getPlanets_AsJson_ShouldReturnArray() throws Exception {
+        when(planetService.getPlanets(any(), any())).thenReturn(Flux.just(PLANET_1, PLANET_2));
+
+        performAsync(get("/reactive/planets").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    public void getPlanets_AsNdjson_ShouldStreamPlanets() throws Exception {
+        when(planetService.getPlanets(any(), any())).thenReturn(Flux.just(PLANET_1, PLANET_2));
+
+        performAsync(get("/reactive/planets").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        objectMapper.writeValueAsString(PLANET_1) + "\n" + objectMapper.writeValueAsString(PLANET_2) + "\n"));
+    }
+
+    @Test
+    public void getPlanets_WithExpand_ShouldReturnDerivedFields() throws Exception {
+        when(planetService.getPlanets(any(), any())).thenReturn(Flux.just(
+                new Planet(1L, "Endor", "Temperate", "Forests, mountains, lakes")));
+
+        performAsync(get("/reactive/planets").param("expand", "climateCategory,terrainTags").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].climateCategory").value("temperate"))
+                .andExpect(jsonPath("$[0].terrainTags", contains("forests", "mountains", "lakes")));
+    }
+
+    @Test
+    public void getPlanets_WithUnknownExpand_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/reactive/planets").param("expand", "population"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void deletePlanetById_WithValidId_ShouldReturn204() throws Exception {
+        when(planetService.deletePlanet(any())).thenReturn(Mono.empty());
+
+        performAsync(delete("/reactive/planets/2"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    public void deletePlanetById_WithUnexistingId_ShouldReturn404() throws Exception {
+        when(planetService.deletePlanet(any())).thenReturn(Mono.error(new EmptyResultDataAccessException(1)));
+
+        performAsync(delete("/reactive/planets/2"))
+                .andExpect(status().isNotFound());
+    }
+
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        var result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
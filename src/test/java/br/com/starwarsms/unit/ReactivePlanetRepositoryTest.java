@@ -0,0 +1,141 @@
+package br.com.starwarsms.unit;
+
+import br.com.starwarsms.domain.Planet;
+import br.com.starwarsms.domain.ReactivePlanetRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.test.StepVerifier;
+
+import static br.com.starwarsms.common.PlanetConstants.PLANET_1;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@DataR2dbcTest(properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive-planets",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password="
+})
+public class ReactivePlanetRepositoryTest {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private ReactivePlanetRepository planetRepository;
+
+    @BeforeEach
+    public void setUp() {
+        databaseClient.sql("""
+                CREATE TABLE IF NOT EXISTS planets (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    name VARCHAR(255) NOT NULL UNIQUE,
+                    climate VARCHAR(255) NOT NULL,
+                    terrain VARCHAR(255) NOT NULL,
+                    version BIGINT DEFAULT 0 NOT NULL,
+                    deleted BOOLEAN DEFAULT FALSE NOT NULL)""").then().block();
+        databaseClient.sql("INSERT INTO planets (name, climate, terrain) VALUES ('Hoth', 'frozen', 'tundra')").then().block();
+        databaseClient.sql("INSERT INTO planets (name, climate, terrain) VALUES ('Bespin', 'frozen', 'tundra')").then().block();
+        databaseClient.sql("INSERT INTO planets (name, climate, terrain) VALUES ('Dagobah', 'murky', 'swamp')").then().block();
+
+        planetRepository = new ReactivePlanetRepository(databaseClient);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        databaseClient.sql("DROP TABLE planets").then().block();
+    }
+
+    @Test
+    public void createPlanet_WithValidData_ReturnsPlanet() {
+        StepVerifier.create(planetRepository.save(PLANET_1))
+                .assertNext(planet -> {
+                    assertNotNull(planet.getId());
+                    assertEquals(PLANET_1.getName(), planet.getName());
+                    assertEquals(PLANET_1.getClimate(), planet.getClimate());
+                    assertEquals(PLANET_1.getTerrain(), planet.getTerrain());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void createPlanet_WithExistingName_ThrowsException() {
+        StepVerifier.create(planetRepository.save(new Planet(null, "Hoth", "frozen", "tundra")))
+                .expectError(DataIntegrityViolationException.class)
+                .verify();
+    }
+
+    @Test
+    public void getPlanetByName_WithValidName_ReturnsPlanet() {
+        StepVerifier.create(planetRepository.findByName("Dagobah"))
+                .assertNext(planet -> assertEquals("murky", planet.getClimate()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void getPlanetById_WithInvalidId_ReturnsEmpty() {
+        StepVerifier.create(planetRepository.findById(0L))
+                .verifyComplete();
+    }
+
+    @Test
+    public void getPlanetList_ReturnsFilteredPlanets() {
+        StepVerifier.create(planetRepository.findAll("FROZEN", "tundra"))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        StepVerifier.create(planetRepository.findAll(null, null))
+                .expectNextCount(3)
+                .verifyComplete();
+    }
+
+    @Test
+    public void getPlanetList_StreamsWithBackpressure() {
+        StepVerifier.create(planetRepository.findAll(null, null), 1)
+                .expectNextCount(1)
+                .thenRequest(2)
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    public void deletePlanetById_WithValidId_DeletesPlanet() {
+        var planet = planetRepository.findByName("Hoth").block();
+
+        assertNotNull(planet);
+
+        StepVerifier.create(planetRepository.deleteById(planet.getId()))
+                .expectNext(1L)
+                .verifyComplete();
+
+        StepVerifier.create(planetRepository.findById(planet.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void deletePlanetById_WithInvalidId_UpdatesNothing() {
+        StepVerifier.create(planetRepository.deleteById(0L))
+                .expectNext(0L)
+                .verifyComplete();
+    }
+
+    @Test
+    public void createPlanet_WithTombstonedName_ReclaimsName() {
+        var hoth = planetRepository.findByName("Hoth").block();
+
+        assertNotNull(hoth);
+
+        planetRepository.deleteById(hoth.getId()).block();
+
+        StepVerifier.create(planetRepository.save(new Planet(null, "Hoth", "icy", "tundra")))
+                .assertNext(planet -> assertNotEquals(hoth.getId(), planet.getId()))
+                .verifyComplete();
+        StepVerifier.create(planetRepository.findByName("Hoth"))
+                .assertNext(planet -> assertEquals("icy", planet.getClimate()))
+                .verifyComplete();
+    }
+}
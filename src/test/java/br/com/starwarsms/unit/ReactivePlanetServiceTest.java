@@ -0,0 +1,61 @@
+package br.com.starwarsms.unit;
+
+import br.com.starwarsms.cache.PlanetCache;
+import br.com.starwarsms.domain.Planet;
+import br.com.starwarsms.domain.ReactivePlanetRepository;
+import br.com.starwarsms.domain.ReactivePlanetService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.EmptyResultDataAccessException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactivePlanetServiceTest {
+
+    @InjectMocks
+    private ReactivePlanetService planetService;
+
+    @Mock
+    private ReactivePlanetRepository planetRepository;
+
+    @Mock
+    private PlanetCache planetCache;
+
+    @Test
+    public void createPlanet_EvictsTheName() {
+        var planet = new Planet(null, "Hoth", "frozen", "tundra");
+        when(planetRepository.save(planet)).thenReturn(Mono.just(new Planet(7L, "Hoth", "frozen", "tundra")));
+
+        StepVerifier.create(planetService.createPlanet(planet))
+                .expectNextCount(1)
+                .verifyComplete();
+        verify(planetCache).evictName("Hoth");
+    }
+
+    @Test
+    public void deletePlanet_WithValidId_Completes() {
+        when(planetRepository.deleteById(1L)).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(planetService.deletePlanet(1L))
+                .verifyComplete();
+        verify(planetCache).evict(1L, Long.MAX_VALUE);
+    }
+
+    @Test
+    public void deletePlanet_WithInvalidId_ThrowsException() {
+        when(planetRepository.deleteById(1L)).thenReturn(Mono.just(0L));
+
+        StepVerifier.create(planetService.deletePlanet(1L))
+                .expectError(EmptyResultDataAccessException.class)
+                .verify();
+        verifyNoInteractions(planetCache);
+    }
+}
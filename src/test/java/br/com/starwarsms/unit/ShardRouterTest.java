@@ -0,0 +1,94 @@
+package br.com.starwarsms.unit;
+
+import br.com.starwarsms.sharding.HashShardingStrategy;
+import br.com.starwarsms.sharding.RangeShardingStrategy;
+import br.com.starwarsms.sharding.ShardContext;
+import br.com.starwarsms.sharding.ShardRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ShardRouterTest {
+
+    private final ShardRouter shardRouter = new ShardRouter(new HashShardingStrategy(3), 2);
+
+    @AfterEach
+    public void tearDown() {
+        shardRouter.close();
+    }
+
+    @Test
+    public void hashStrategy_InterleavesIdsAcrossShards() {
+        var strategy = new HashShardingStrategy(3);
+
+        for (int shard = 0; shard < 3; shard++) {
+            long firstId = strategy.firstId(shard);
+            assertEquals(shard, strategy.shardForId(firstId));
+            assertEquals(shard, strategy.shardForId(firstId + strategy.idIncrement()));
+            assertEquals(shard, strategy.shardForId(firstId + 10 * strategy.idIncrement()));
+        }
+    }
+
+    @Test
+    public void rangeStrategy_KeepsIdsInsideTheShardRange() {
+        var strategy = new RangeShardingStrategy(3, 100);
+
+        assertEquals(0, strategy.shardForId(1));
+        assertEquals(0, strategy.shardForId(100));
+        assertEquals(1, strategy.shardForId(101));
+        assertEquals(2, strategy.shardForId(strategy.firstId(2) + 50));
+        assertEquals(1, strategy.idIncrement());
+    }
+
+    @Test
+    public void byName_RoutesToTheHomeShardAndRestoresContext() {
+        int shard = shardRouter.byName("Hoth", ShardContext::current);
+
+        assertEquals(new HashShardingStrategy(3).shardForName("Hoth"), shard);
+        assertNull(ShardContext.current());
+    }
+
+    @Test
+    public void scatter_QueriesEveryShardAndMergesInShardOrder() {
+        var merged = shardRouter.scatter(() -> List.of(ShardContext.current(), ShardContext.current() * 10));
+
+        assertEquals(List.of(0, 0, 1, 10, 2, 20), merged);
+    }
+
+    @Test
+    public void scatter_PropagatesShardFailures() {
+        assertThrows(IllegalArgumentException.class, () -> shardRouter.scatter(() -> {
+            if (ShardContext.current() == 1) {
+                throw new IllegalArgumentException("shard down");
+            }
+            return List.of();
+        }));
+    }
+
+    @Test
+    public void partitioned_KeepsTheOriginalOrder() {
+        var names = List.of("Hoth", "Dagobah", "Bespin", "Jedha", "Tatooine", "Alderaan");
+
+        var saved = shardRouter.partitioned(names, name -> name,
+                shardNames -> shardNames.stream().map(name -> name + "@" + ShardContext.current()).toList());
+
+        var strategy = new HashShardingStrategy(3);
+        for (int i = 0; i < names.size(); i++) {
+            assertEquals(names.get(i) + "@" + strategy.shardForName(names.get(i)), saved.get(i));
+        }
+    }
+
+    @Test
+    public void single_RunsEverythingInPlace() {
+        var single = ShardRouter.single();
+
+        assertEquals(1, single.shardCount());
+        assertEquals(List.of("x"), single.scatter(() -> List.of("x")));
+        assertNull(single.byId(42L, ShardContext::current));
+    }
+}
@@ -0,0 +1,116 @@
+package br.com.starwarsms.unit;
+
+import br.com.starwarsms.cache.OffHeapPlanetStore;
+import br.com.starwarsms.cache.TieredPlanetCache;
+import br.com.starwarsms.domain.Planet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TieredPlanetCacheTest {
+
+    private static final Planet TATOOINE = new Planet(1L, "Tatooine", "arid", "desert", 3L);
+    private static final Planet HOTH = new Planet(2L, "Hoth", "frozen", "tundra", 0L);
+    private static final Planet DAGOBAH = new Planet(3L, "Dagobah", "murky", "swamp", 0L);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TieredPlanetCache cache = new TieredPlanetCache(
+            OffHeapPlanetStore.inMemory(64, 128, 4, clock::get), 2, Duration.ofSeconds(60), clock::get, meterRegistry);
+
+    @Test
+    public void getById_AfterPut_ReturnsCopyFromNearTier() {
+        cache.put(TATOOINE);
+
+        var planet = cache.getById(1L);
+
+        assertEquals(Optional.of(TATOOINE), planet);
+        assertNotSame(TATOOINE, planet.get());
+        assertEquals(1, lookups("near"));
+    }
+
+    @Test
+    public void getById_WhenEvictedFromNearTier_ReadsOffHeapTier() {
+        cache.put(TATOOINE);
+        cache.put(HOTH);
+        cache.put(DAGOBAH);
+
+        assertEquals(Optional.of(TATOOINE), cache.getById(1L));
+        assertEquals(1, lookups("off-heap"));
+
+        assertEquals(Optional.of(TATOOINE), cache.getById(1L));
+        assertEquals(1, lookups("near"));
+    }
+
+    @Test
+    public void getByName_AfterRename_MissesOldName() {
+        cache.put(TATOOINE);
+        cache.put(new Planet(1L, "Tatooine II", "arid", "desert", 4L));
+
+        assertEquals(Optional.empty(), cache.getByName("Tatooine"));
+        assertEquals(4L, cache.getByName("Tatooine II").orElseThrow().getVersion());
+    }
+
+    @Test
+    public void evict_RemovesPlanetFromBothTiers() {
+        cache.put(TATOOINE);
+
+        cache.evict(1L);
+
+        assertFalse(cache.getById(1L).isPresent());
+        assertFalse(cache.getByName("Tatooine").isPresent());
+        assertEquals(2, lookups("miss"));
+    }
+
+    @Test
+    public void evictWithVersion_RefusesOlderVersionsForTheTtl() {
+        cache.put(TATOOINE);
+
+        cache.evict(1L, 4L);
+        cache.put(TATOOINE);
+        assertFalse(cache.getById(1L).isPresent());
+
+        cache.put(new Planet(1L, "Tatooine", "arid", "desert", 4L));
+        assertEquals(4L, cache.getById(1L).orElseThrow().getVersion());
+
+        cache.evict(1L, 5L);
+        clock.addAndGet(Duration.ofSeconds(61).toMillis());
+        cache.put(TATOOINE);
+        assertEquals(3L, cache.getById(1L).orElseThrow().getVersion());
+    }
+
+    @Test
+    public void getById_AfterTtl_ReturnsEmpty() {
+        cache.put(TATOOINE);
+        clock.addAndGet(Duration.ofSeconds(61).toMillis());
+
+        assertFalse(cache.getById(1L).isPresent());
+        assertTrue(lookups("miss") > 0);
+    }
+
+    @Test
+    public void getById_PromotedFromOffHeap_KeepsTheOriginalTtl() {
+        cache.put(TATOOINE);
+        cache.put(HOTH);
+        cache.put(DAGOBAH);
+        clock.addAndGet(Duration.ofSeconds(50).toMillis());
+
+        assertTrue(cache.getById(1L).isPresent());
+        assertEquals(1, lookups("off-heap"));
+
+        clock.addAndGet(Duration.ofSeconds(11).toMillis());
+        assertFalse(cache.getById(1L).isPresent());
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("planets.cache.lookups").tag("result", result).counter().count();
+    }
+}